@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+#
+# Starts a cluster of game servers on localhost, on ports BASE_PORT (8081) and up, and keeps it running until
+# interrupted. With BENCH=1 it instead drives every node at once with wrk, each with games started on that node,
+# and prints the combined throughput; compare runs with 1 and more nodes to see how it scales.
+#
+# Requires curl, and wrk (https://github.com/wg/wrk) for BENCH=1.
+# Usage: scripts/cluster-local.sh [nodes] [connections per node] [duration]
+#
+set -euo pipefail
+
+NODES=${1:-3}
+CONNECTIONS=${2:-100}
+DURATION=${3:-30s}
+BASE_PORT=${BASE_PORT:-8081}
+GAMES=${GAMES:-1000}
+SECRET=${SECRET:-$(od -An -N16 -tx1 /dev/urandom | tr -d ' \n')}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+RESULTS="$ROOT/build/cluster"
+
+cd "$ROOT"
+./gradlew -q bootJar
+JAR=$(ls build/libs/*-SNAPSHOT.jar | grep -v plain | head -n 1)
+mkdir -p "$RESULTS"
+
+PORTS=$(seq "$BASE_PORT" $((BASE_PORT + NODES - 1)))
+MEMBERS=$(for port in $PORTS; do printf 'http://localhost:%s,' "$port"; done)
+MEMBERS=${MEMBERS%,}
+
+PIDS=()
+trap 'kill "${PIDS[@]}" 2>/dev/null || true' EXIT
+for port in $PORTS; do
+    java -jar "$JAR" --server.port="$port" --logging.level.root=WARN --rps.ratelimit.enabled=false \
+        --rps.cluster.enabled=true --rps.cluster.self="http://localhost:$port" --rps.cluster.nodes="$MEMBERS" \
+        --rps.cluster.secret="$SECRET" \
+        > "$RESULTS/node-$port.log" 2>&1 &
+    PIDS+=($!)
+done
+for port in $PORTS; do
+    until curl -sf "http://localhost:$port/cluster/members" > /dev/null; do sleep 0.5; done
+done
+echo "Cluster of $NODES nodes is up:"
+curl -s "http://localhost:$BASE_PORT/cluster/members"
+echo
+echo "Cluster secret for membership changes: $SECRET"
+echo
+
+if [ "${BENCH:-0}" != 1 ]; then
+    echo "Logs are in $RESULTS. Press Ctrl-C to stop."
+    wait
+    exit 0
+fi
+
+for port in $PORTS; do
+    ids="$RESULTS/game-ids-$port.txt"
+    : > "$ids"
+    for _ in $(seq "$GAMES"); do
+        curl -s -X POST "http://localhost:$port/game/start" | sed -E 's/.*"gameId":"([^"]+)".*/\1/' >> "$ids"
+    done
+done
+
+echo "== $NODES nodes, $CONNECTIONS connections per node, $DURATION"
+WRK_PIDS=()
+for port in $PORTS; do
+    GAME_IDS="$RESULTS/game-ids-$port.txt" wrk -t 2 -c "$CONNECTIONS" -d "$DURATION" --latency \
+        -s "$ROOT/scripts/move.lua" "http://localhost:$port/game/move" > "$RESULTS/wrk-$NODES-$port.txt" &
+    WRK_PIDS+=($!)
+done
+wait "${WRK_PIDS[@]}"
+for port in $PORTS; do
+    echo "node $port: $(grep 'Requests/sec' "$RESULTS/wrk-$NODES-$port.txt")"
+done
+awk '/Requests\/sec/ { total += $2 } END { printf "total: %.0f requests/s\n", total }' "$RESULTS"/wrk-"$NODES"-*.txt
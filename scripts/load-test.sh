@@ -0,0 +1,59 @@
+#!/usr/bin/env bash
+#
+# Compares /game/move throughput and latency on platform threads, on virtual threads and on the
+# reactive (WebFlux) stack. With COMPARE_LOGGING=1 it instead compares logging every round on the request
+# thread with the default asynchronous, sampled logging.
+#
+# Requires Java 21 (for the virtual-thread run), wrk (https://github.com/wg/wrk) and curl.
+# Usage: scripts/load-test.sh [connections] [duration]
+#
+set -euo pipefail
+
+CONNECTIONS=${1:-10000}
+DURATION=${2:-60s}
+THREADS=${WRK_THREADS:-$(nproc)}
+PORT=${PORT:-8080}
+GAMES=${GAMES:-1000}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+RESULTS="$ROOT/build/load-test"
+
+cd "$ROOT"
+./gradlew -q -PjavaVersion=21 bootJar
+JAR=$(ls build/libs/*-SNAPSHOT.jar | grep -v plain | head -n 1)
+mkdir -p "$RESULTS"
+
+# A slow client holds its connection open; raise Tomcat's connection limits above the default 8192.
+# All load comes from one address, so admission control is disabled.
+SERVER_ARGS="--rps.ratelimit.enabled=false --server.port=$PORT --server.tomcat.max-connections=$((CONNECTIONS * 2)) --server.tomcat.accept-count=$CONNECTIONS"
+
+run() {
+    local mode=$1 virtual=$2 profile=$3 logging=$4
+    java -jar "$JAR" $SERVER_ARGS $logging --spring.threads.virtual.enabled="$virtual" \
+        --spring.profiles.active="$profile" > "$RESULTS/$mode-server.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" RETURN
+
+    until curl -sf -X POST "http://localhost:$PORT/game/start" > /dev/null; do sleep 0.5; done
+
+    local ids="$RESULTS/game-ids.txt"
+    : > "$ids"
+    for _ in $(seq "$GAMES"); do
+        curl -s -X POST "http://localhost:$PORT/game/start" | sed -E 's/.*"gameId":"([^"]+)".*/\1/' >> "$ids"
+    done
+
+    echo "== $mode, $CONNECTIONS connections, $DURATION"
+    GAME_IDS="$ids" wrk -t "$THREADS" -c "$CONNECTIONS" -d "$DURATION" --latency \
+        -s "$ROOT/scripts/move.lua" "http://localhost:$PORT/game/move" | tee "$RESULTS/$mode.txt"
+}
+
+ulimit -n $((CONNECTIONS * 3)) 2>/dev/null || echo "warning: could not raise the open file limit"
+QUIET="--logging.level.root=WARN"
+if [ "${COMPARE_LOGGING:-0}" = 1 ]; then
+    run sync-every-round false sync-logging "--rps.logging.round-sample-rate=1"
+    run async-sampled false default ""
+else
+    run platform false default "$QUIET"
+    run virtual true default "$QUIET"
+    run reactive false reactive "$QUIET"
+fi
+echo "Reports written to $RESULTS"
@@ -0,0 +1,14 @@
+-- wrk script posting random moves to games listed in the file named by $GAME_IDS, one ID per line.
+local ids = {}
+for line in io.lines(os.getenv("GAME_IDS")) do
+    ids[#ids + 1] = line
+end
+local moves = { "ROCK", "PAPER", "SCISSORS" }
+
+wrk.method = "POST"
+wrk.headers["Content-Type"] = "application/json"
+
+request = function()
+    local body = string.format('{"gameId":"%s","move":"%s"}', ids[math.random(#ids)], moves[math.random(3)])
+    return wrk.format(nil, nil, nil, body)
+end
@@ -0,0 +1,88 @@
+#!/usr/bin/env bash
+#
+# Measures time to first response, time to ready and resident memory of the server in each startup mode:
+#   eager    boot jar with every bean created at startup and no warm-up (the old defaults)
+#   jar      boot jar with lazy initialization and the warm-up (the defaults)
+#   cds      extracted jar with a CDS archive (./gradlew cdsArchive)
+#   aot-cds  the same with Spring AOT processing (./gradlew -Paot cdsArchive)
+#   native   GraalVM native image (./gradlew -Pnative nativeCompile), only with NATIVE=1
+#
+# First response is the time from launch until POST /game/start succeeds; ready is the time until
+# /actuator/health/readiness is UP, which includes the warm-up. RSS is read once ready. Every mode runs RUNS times
+# and the medians are reported, so results are comparable between machines and commits.
+#
+# Requires curl and Linux (/proc); native mode also requires GraalVM as the Java 17 toolchain.
+# Usage: scripts/startup-benchmark.sh [runs]
+#
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+RESULTS="$ROOT/build/startup-benchmark"
+SERVER_ARGS="--server.port=$PORT"
+
+cd "$ROOT"
+mkdir -p "$RESULTS"
+: > "$RESULTS/summary.txt"
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+# Starts the server with the given command, from the given directory, and prints "<first response> <ready> <rss>".
+measure() {
+    local log=$1 dir=$2
+    shift 2
+    local start
+    start=$(now_ms)
+    (cd "$dir" && exec "$@" $SERVER_ARGS) > "$log" 2>&1 &
+    local pid=$!
+
+    until curl -sf -X POST "http://localhost:$PORT/game/start" > /dev/null; do
+        kill -0 "$pid" 2>/dev/null || { echo "server exited, see $log" >&2; exit 1; }
+        sleep 0.01
+    done
+    local first=$(( $(now_ms) - start ))
+    until curl -sf "http://localhost:$PORT/actuator/health/readiness" > /dev/null; do sleep 0.01; done
+    local ready=$(( $(now_ms) - start ))
+    local rss
+    rss=$(awk '/VmRSS/ { print int($2 / 1024) }' "/proc/$pid/status")
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$first $ready $rss"
+}
+
+run() {
+    local mode=$1 dir=$2
+    shift 2
+    local samples="$RESULTS/$mode.txt"
+    : > "$samples"
+    for i in $(seq "$RUNS"); do
+        measure "$RESULTS/$mode-$i.log" "$dir" "$@" >> "$samples"
+    done
+    printf "%-8s first response %6s ms   ready %6s ms   RSS %5s MB\n" "$mode" \
+        "$(cut -d' ' -f1 "$samples" | median)" \
+        "$(cut -d' ' -f2 "$samples" | median)" \
+        "$(cut -d' ' -f3 "$samples" | median)" | tee -a "$RESULTS/summary.txt"
+}
+
+./gradlew -q bootJar cdsArchive
+JAR=$(ls "$ROOT"/build/libs/*-SNAPSHOT.jar | grep -v plain | head -n 1)
+run eager "$ROOT" java -jar "$JAR" --spring.main.lazy-initialization=false --rps.warmup.enabled=false
+run jar "$ROOT" java -jar "$JAR"
+run cds "$ROOT/build/cds" java -XX:SharedArchiveFile=application.jsa -jar application.jar
+
+./gradlew -q -Paot cdsArchive
+run aot-cds "$ROOT/build/cds" java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar application.jar
+
+if [ "${NATIVE:-0}" = 1 ]; then
+    ./gradlew -q -Pnative nativeCompile
+    run native "$ROOT" "$ROOT/build/native/nativeCompile/RockPaperScissors"
+fi
+echo "Samples and server logs written to $RESULTS"
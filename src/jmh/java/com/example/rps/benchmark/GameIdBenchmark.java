@@ -0,0 +1,115 @@
+package com.example.rps.benchmark;
+
+import com.example.rps.model.Game;
+import com.example.rps.repository.LongGameMap;
+import com.example.rps.repository.ShardedGameRepository;
+import com.example.rps.service.GameService;
+import com.example.rps.service.MoveService;
+import com.example.rps.service.RandomGameIdGenerator;
+import com.example.rps.util.GameIds;
+import com.example.rps.util.PredictionStrategyFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random {@code long} game IDs against the random UUIDs they replaced: generating an ID, and looking a game up
+ * among {@value #LIVE_GAMES} live ones in a {@link ConcurrentHashMap} keyed by UUID strings, as shards did before,
+ * or in a {@link LongGameMap} after parsing the ID. Lookups copy the ID into a new string first, like a request does
+ * when it reads the path, so the UUID baseline pays for hashing the string as it did in production.
+ * {@code startGame} and {@code getGameOrThrow} measure the service paths end to end, with metrics and eviction.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameIdBenchmark {
+
+    private static final int LIVE_GAMES = 100_000;
+    private static final int LOOKUP_IDS = 1024;
+
+    @State(Scope.Benchmark)
+    public static class Games {
+
+        public RandomGameIdGenerator idGenerator;
+        public GameService gameService;
+        public GameService startService;
+        public Map<String, Game> uuidGames;
+        public LongGameMap longGames;
+        public char[][] ids;
+        public char[][] uuids;
+
+        @Setup
+        public void setUp() {
+            idGenerator = new RandomGameIdGenerator();
+            PredictionStrategyFactory factory = new PredictionStrategyFactory(PredictionStrategyFactory.MARKOV, 2);
+            gameService = new GameService(new MoveService(), new ShardedGameRepository(16), factory);
+            // Capped like a production store, so startGame measures a full store that evicts as it inserts.
+            startService = new GameService(new MoveService(),
+                    new ShardedGameRepository(16, Duration.ZERO, LIVE_GAMES, System::nanoTime), factory);
+            uuidGames = new ConcurrentHashMap<>();
+            longGames = new LongGameMap();
+            ids = new char[LOOKUP_IDS][];
+            uuids = new char[LOOKUP_IDS][];
+            for (int i = 0; i < LIVE_GAMES; i++) {
+                String id = gameService.startNewGame();
+                startService.startNewGame();
+                String uuid = UUID.randomUUID().toString();
+                uuidGames.put(uuid, new Game());
+                longGames.put(GameIds.parse(id), new Game());
+                if (i < LOOKUP_IDS) {
+                    ids[i] = id.toCharArray();
+                    uuids[i] = uuid.toCharArray();
+                }
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Lookups {
+
+        public int next;
+
+        int next() {
+            return next++ & (LOOKUP_IDS - 1);
+        }
+    }
+
+    @Benchmark
+    public String uuidId() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String randomId(Games games) {
+        return games.idGenerator.nextId();
+    }
+
+    @Benchmark
+    public String startGame(Games games) {
+        return games.startService.startNewGame();
+    }
+
+    @Benchmark
+    public Game uuidLookup(Games games, Lookups lookups) {
+        return games.uuidGames.get(new String(games.uuids[lookups.next()]));
+    }
+
+    @Benchmark
+    public Game longLookup(Games games, Lookups lookups) {
+        return games.longGames.get(GameIds.parse(new String(games.ids[lookups.next()])));
+    }
+
+    @Benchmark
+    public Game getGameOrThrow(Games games, Lookups lookups) {
+        return games.gameService.getGameOrThrow(new String(games.ids[lookups.next()]));
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.rps.benchmark;
+
+import com.example.rps.model.Game;
+import com.example.rps.model.GameResult;
+import com.example.rps.model.GameStatistics;
+import com.example.rps.model.Move;
+import com.example.rps.repository.GameRepository;
+import com.example.rps.repository.ShardedGameRepository;
+import com.example.rps.service.MoveService;
+import com.example.rps.service.RandomGameIdGenerator;
+import com.example.rps.service.StatisticsService;
+import com.example.rps.util.MovePredictor;
+import com.example.rps.util.PredictionStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-round hot paths of the service. Services are shared between benchmark threads like the singleton beans
+ * are shared between request threads, while every thread plays its own game.
+ * Run through the {@code jmhThreads1}, {@code jmhThreads8} and {@code jmhThreads32} tasks to compare contention.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HotPathBenchmark {
+
+    private static final int SEQUENCE_LENGTH = 1 << 10;
+
+    /**
+     * Games are replaced after this many rounds so the benchmark measures appends rather than heap growth.
+     */
+    private static final int ROUNDS_PER_GAME = 1 << 16;
+
+    @State(Scope.Benchmark)
+    public static class Services {
+
+        public MoveService moveService;
+        public GameRepository games;
+        public StatisticsService statisticsService;
+
+        @Setup
+        public void setUp() {
+            moveService = new MoveService();
+            games = new ShardedGameRepository(16);
+            statisticsService = new StatisticsService(games);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Player {
+
+        public String[] userMoveNames;
+        public Move[] userMoves;
+        public Move[] computerMoves;
+        public GameResult[] results;
+        public String gameId;
+        public Game game;
+        public MovePredictor predictor;
+        public int rounds;
+
+        @Setup
+        public void setUp(Services services) {
+            SplittableRandom random = new SplittableRandom(7);
+            Move[] moves = Move.values();
+            userMoveNames = new String[SEQUENCE_LENGTH];
+            userMoves = new Move[SEQUENCE_LENGTH];
+            computerMoves = new Move[SEQUENCE_LENGTH];
+            results = new GameResult[SEQUENCE_LENGTH];
+            for (int i = 0; i < SEQUENCE_LENGTH; i++) {
+                userMoves[i] = moves[random.nextInt(moves.length)];
+                // Clients send both upper and lower case names.
+                userMoveNames[i] = (i & 1) == 0 ? userMoves[i].name() : userMoves[i].name().toLowerCase();
+                computerMoves[i] = moves[random.nextInt(moves.length)];
+                results[i] = services.moveService.determineResult(userMoves[i], computerMoves[i]);
+            }
+
+            gameId = new RandomGameIdGenerator().nextId();
+            game = new Game();
+            services.games.save(gameId, game);
+            predictor = new MovePredictor();
+            for (Move move : userMoves) {
+                game.addMove(move, move, GameResult.DRAW);
+                predictor.recordMove(move);
+            }
+        }
+
+        int next() {
+            return rounds++ & (SEQUENCE_LENGTH - 1);
+        }
+    }
+
+    /**
+     * Everything between the request body and recording the round: parsing, move selection and the outcome.
+     * Expected to report {@code gc.alloc.rate.norm} of zero.
+     */
+    @Benchmark
+    public GameResult resolveRound(Services services, Player player) {
+        Move userMove = services.moveService.convertToEnum(player.userMoveNames[player.next()], Move.class);
+        Move computerMove = computerMove(services, player);
+        return services.moveService.determineResult(userMove, computerMove);
+    }
+
+    @Benchmark
+    public Move parseMove(Services services, Player player) {
+        return services.moveService.convertToEnum(player.userMoveNames[player.next()], Move.class);
+    }
+
+    @Benchmark
+    public Move generateComputerMove(Services services, Player player) {
+        return computerMove(services, player);
+    }
+
+    @Benchmark
+    public GameResult determineResult(Services services, Player player) {
+        int i = player.next();
+        return services.moveService.determineResult(player.userMoves[i], player.computerMoves[i]);
+    }
+
+    @Benchmark
+    public boolean moveBeats(Player player) {
+        int i = player.next();
+        return player.userMoves[i].beats(player.computerMoves[i]);
+    }
+
+    @Benchmark
+    public Game gameAddMove(Player player) {
+        int i = player.next();
+        if (player.rounds % ROUNDS_PER_GAME == 0) {
+            player.game = new Game();
+        }
+        player.game.addMove(player.userMoves[i], player.computerMoves[i], player.results[i]);
+        return player.game;
+    }
+
+    /**
+     * Statistics are counted by {@code gameAddMove}; reading them is one registry lookup plus a snapshot.
+     */
+    @Benchmark
+    public GameStatistics getStatistics(Services services, Player player) {
+        return services.statisticsService.getStatisticsByGameId(player.gameId);
+    }
+
+    @Benchmark
+    public Move movePredictorPredict(Player player) {
+        return player.predictor.predict();
+    }
+
+    /**
+     * Chooses the computer's move the way {@code GameService} does for a round.
+     */
+    private static Move computerMove(Services services, Player player) {
+        PredictionStrategy predictor = player.game.getPredictor();
+        return services.moveService.generateComputerMove(predictor.predict(), predictor.randomMoveRate(),
+                ThreadLocalRandom.current());
+    }
+}
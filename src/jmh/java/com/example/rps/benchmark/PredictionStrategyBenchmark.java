@@ -0,0 +1,78 @@
+package com.example.rps.benchmark;
+
+import com.example.rps.model.GameResult;
+import com.example.rps.model.Move;
+import com.example.rps.util.EnsemblePredictor;
+import com.example.rps.util.LastMovePredictor;
+import com.example.rps.util.MarkovPredictor;
+import com.example.rps.util.MovePredictor;
+import com.example.rps.util.PatternPredictor;
+import com.example.rps.util.PredictionStrategy;
+import com.example.rps.util.WinStayLoseShiftPredictor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one round of learning plus prediction for each strategy, with Markov orders 1 to 6, the experts of the
+ * ensemble on their own, and the ensemble, which predicts with every expert twice per round.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PredictionStrategyBenchmark {
+
+    private static final int SEQUENCE_LENGTH = 1 << 12;
+
+    @Param({"frequency", "markov-1", "markov-2", "markov-3", "markov-4", "markov-5", "markov-6",
+            "last-move", "win-stay-lose-shift", "pattern-2", "ensemble"})
+    public String strategy;
+
+    private PredictionStrategy predictor;
+    private Move[] sequence;
+    private Move[] computerSequence;
+    private GameResult[] results;
+    private int position;
+
+    @Setup
+    public void setUp() {
+        predictor = switch (strategy) {
+            case "frequency" -> new MovePredictor();
+            case "last-move" -> new LastMovePredictor();
+            case "win-stay-lose-shift" -> new WinStayLoseShiftPredictor();
+            case "pattern-2" -> new PatternPredictor(2);
+            case "ensemble" -> new EnsemblePredictor(42);
+            default -> new MarkovPredictor(Integer.parseInt(strategy.substring("markov-".length())));
+        };
+
+        // A biased player, so predictions are not trivially random.
+        SplittableRandom random = new SplittableRandom(42);
+        Move[] moves = Move.values();
+        sequence = new Move[SEQUENCE_LENGTH];
+        computerSequence = new Move[SEQUENCE_LENGTH];
+        results = new GameResult[SEQUENCE_LENGTH];
+        for (int i = 0; i < SEQUENCE_LENGTH; i++) {
+            sequence[i] = random.nextInt(10) < 5 ? moves[i % moves.length] : moves[random.nextInt(moves.length)];
+            computerSequence[i] = moves[random.nextInt(moves.length)];
+            results[i] = GameResult.of(sequence[i], computerSequence[i]);
+        }
+        for (int i = 0; i < SEQUENCE_LENGTH; i++) {
+            predictor.recordRound(sequence[i], computerSequence[i], results[i]);
+        }
+    }
+
+    @Benchmark
+    public Move recordAndPredict() {
+        int at = position++ & (SEQUENCE_LENGTH - 1);
+        predictor.recordRound(sequence[at], computerSequence[at], results[at]);
+        return predictor.predict();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.rps.benchmark;
+
+import com.example.rps.ratelimit.ConcurrencyLimiter;
+import com.example.rps.ratelimit.RateLimiterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of admission control on the allowed path: a token from the client's bucket plus a slot under the
+ * concurrency cap. Limits are high enough that every request is allowed. Requests cycle over 1024 clients in
+ * {@code manyClients}, while all threads share one client's bucket in {@code sharedClient}, the worst case for the
+ * compare-and-set.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 1024;
+
+    @State(Scope.Benchmark)
+    public static class Limits {
+
+        public RateLimiterRegistry registry;
+        public ConcurrencyLimiter concurrencyLimiter;
+
+        @Setup
+        public void setUp() {
+            registry = new RateLimiterRegistry(1e12, Integer.MAX_VALUE, 100_000);
+            concurrencyLimiter = new ConcurrencyLimiter(Integer.MAX_VALUE);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        public String[] addresses;
+        public int requests;
+
+        @Setup
+        public void setUp() {
+            addresses = new String[CLIENTS];
+            for (int i = 0; i < CLIENTS; i++) {
+                addresses[i] = "10.0." + (i >> 8) + "." + (i & 0xFF);
+            }
+        }
+
+        String next() {
+            return addresses[requests++ & (CLIENTS - 1)];
+        }
+    }
+
+    @Benchmark
+    public boolean manyClients(Limits limits, Client client) {
+        return admit(limits, client.next());
+    }
+
+    @Benchmark
+    public boolean sharedClient(Limits limits) {
+        return admit(limits, "10.0.0.1");
+    }
+
+    private static boolean admit(Limits limits, String address) {
+        if (limits.registry.tryAcquire(address, System.nanoTime()) > 0 || !limits.concurrencyLimiter.tryAcquire()) {
+            return false;
+        }
+        limits.concurrencyLimiter.release();
+        return true;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.rps.benchmark;
+
+import com.example.rps.RockPaperScissorsApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round-trip latency of one round over {@code POST /game/move} and over the WebSocket play mode, against an
+ * in-process server on a random port. Every benchmark thread plays its own game on its own connection, so the
+ * thread count sets the number of concurrent clients; run through {@code jmhThreads32} for high concurrency.
+ * Reports percentiles, in microseconds.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RoundTripBenchmark {
+
+    private static final String[] MOVE_NAMES = {"ROCK", "PAPER", "SCISSORS"};
+    private static final String[] MOVE_LETTERS = {"R", "P", "S"};
+
+    @State(Scope.Benchmark)
+    public static class Server {
+
+        public ConfigurableApplicationContext context;
+        public int port;
+
+        @Setup
+        public void start() {
+            context = new SpringApplicationBuilder(RockPaperScissorsApplication.class)
+                    .properties("server.port=0", "rps.logging.round-sample-rate=0", "rps.ratelimit.enabled=false",
+                            "spring.main.banner-mode=off")
+                    .run();
+            port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        }
+
+        @TearDown
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client implements WebSocket.Listener {
+
+        public HttpClient httpClient;
+        public HttpRequest[] moveRequests;
+        public WebSocket webSocket;
+        public int rounds;
+
+        private final StringBuilder frame = new StringBuilder();
+        private volatile CompletableFuture<String> reply;
+
+        @Setup
+        public void connect(Server server) throws Exception {
+            httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            String base = "http://localhost:" + server.port;
+            String started = httpClient.send(HttpRequest.newBuilder(URI.create(base + "/game/start"))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString()).body();
+            int at = started.indexOf("ID is: ") + "ID is: ".length();
+            String gameId = started.substring(at, started.indexOf('"', at));
+
+            moveRequests = new HttpRequest[MOVE_NAMES.length];
+            for (int i = 0; i < MOVE_NAMES.length; i++) {
+                String body = String.format("{\"gameId\":\"%s\",\"move\":\"%s\"}", gameId, MOVE_NAMES[i]);
+                moveRequests[i] = HttpRequest.newBuilder(URI.create(base + "/game/move"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            }
+            webSocket = httpClient.newWebSocketBuilder()
+                    .buildAsync(URI.create("ws://localhost:" + server.port + "/game/" + gameId + "/play"), this)
+                    .join();
+        }
+
+        @TearDown
+        public void disconnect() {
+            webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "").join();
+        }
+
+        int next() {
+            return rounds++ % MOVE_NAMES.length;
+        }
+
+        String play(String letter) {
+            CompletableFuture<String> pending = new CompletableFuture<>();
+            reply = pending;
+            webSocket.sendText(letter, true);
+            return pending.join();
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket socket, CharSequence data, boolean last) {
+            frame.append(data);
+            if (last) {
+                reply.complete(frame.toString());
+                frame.setLength(0);
+            }
+            socket.request(1);
+            return null;
+        }
+    }
+
+    @Benchmark
+    public String httpMove(Client client) throws Exception {
+        return client.httpClient.send(client.moveRequests[client.next()], HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    @Benchmark
+    public String webSocketMove(Client client) {
+        return client.play(MOVE_LETTERS[client.next()]);
+    }
+}
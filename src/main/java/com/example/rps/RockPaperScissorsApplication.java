@@ -1,13 +1,45 @@
 package com.example.rps;
 
+import com.example.rps.persistence.GameJournal;
+import com.example.rps.service.GameService;
+import jakarta.servlet.Filter;
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
 
 @SpringBootApplication
+@EnableScheduling
 public class RockPaperScissorsApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(RockPaperScissorsApplication.class, args);
     }
 
+    /**
+     * Beans are created on first use ({@code spring.main.lazy-initialization}), except the game service and what it
+     * depends on: the store, journal recovery and the archive run at startup, before the application is ready.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerGameService() {
+        return LazyInitializationExcludeFilter.forBeanTypes(GameService.class, GameJournal.class);
+    }
+
+    /**
+     * The web tier is also created at startup: controllers, filters and the WebSocket endpoint serve every request,
+     * so creating them lazily would only move their cost onto the first one.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerWebTier() {
+        return (beanName, beanDefinition, beanType) -> AnnotatedElementUtils.hasAnnotation(beanType, Controller.class)
+                || Filter.class.isAssignableFrom(beanType)
+                || WebFilter.class.isAssignableFrom(beanType)
+                || WebSocketConfigurer.class.isAssignableFrom(beanType);
+    }
+
 }
@@ -0,0 +1,113 @@
+package com.example.rps;
+
+import com.example.rps.export.HistoryDumpReader;
+import com.example.rps.service.MoveService;
+import com.example.rps.simulation.PlayerModel;
+import com.example.rps.simulation.ReplayResult;
+import com.example.rps.simulation.ReplayScorer;
+import com.example.rps.simulation.SimulationResult;
+import com.example.rps.simulation.TournamentSimulator;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Command-line entry point of the tournament simulation, for evaluating prediction strategies without the web server.
+ * <p>
+ * Usage: {@code ./gradlew simulate -Pargs="--seed=42 --matches=1000 --rounds=1000"}, or run this class directly.
+ * With {@code --replay=<file>}, the strategies are instead re-scored against the user moves of a dump exported from
+ * {@code GET /game/export}, and the player, match, round and thread options are ignored.
+ * Options, all optional:
+ * <ul>
+ *     <li>{@code --seed}: seed of the run; the same seed and options always give the same results (default 42)</li>
+ *     <li>{@code --strategies}: comma-separated strategies, {@code frequency}, {@code markov:<order>} or {@code ensemble}</li>
+ *     <li>{@code --players}: comma-separated player models: random, biased, cyclic, markov,
+ *     win_stay_lose_shift, counter</li>
+ *     <li>{@code --matches}: matches per strategy and player model (default 1000)</li>
+ *     <li>{@code --rounds}: rounds per match (default 1000)</li>
+ *     <li>{@code --threads}: fork/join parallelism (default: available processors)</li>
+ *     <li>{@code --replay}: dump file to re-score the strategies against</li>
+ * </ul>
+ */
+public class SimulationApplication {
+
+    private static final String DEFAULT_STRATEGIES = "frequency,markov:1,markov:2,markov:3,ensemble";
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        List<String> strategies = Arrays.asList(options.getOrDefault("strategies", DEFAULT_STRATEGIES).split(","));
+        if (options.containsKey("replay")) {
+            replay(Path.of(options.get("replay")), seed, strategies);
+            return;
+        }
+        List<PlayerModel> players = options.containsKey("players")
+                ? Arrays.stream(options.get("players").split(",")).map(PlayerModel::parse).toList()
+                : List.of(PlayerModel.values());
+        int matches = Integer.parseInt(options.getOrDefault("matches", "1000"));
+        int rounds = Integer.parseInt(options.getOrDefault("rounds", "1000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            TournamentSimulator simulator = new TournamentSimulator(new MoveService(), pool);
+            long start = System.nanoTime();
+            List<SimulationResult> results = simulator.run(seed, strategies, players, matches, rounds);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            long total = results.stream().mapToLong(SimulationResult::rounds).sum();
+            System.out.printf(Locale.ROOT, "Simulated %,d rounds in %.2f s (%,.0f rounds/s) with seed %d on %d threads.%n%n",
+                    total, seconds, total / seconds, seed, threads);
+            System.out.printf(Locale.ROOT, "%-12s %-19s %8s %8s %8s%n", "strategy", "player", "win", "draw", "loss");
+            for (SimulationResult result : results) {
+                System.out.printf(Locale.ROOT, "%-12s %-19s %8.4f %8.4f %8.4f%n", result.strategy(),
+                        result.player().name().toLowerCase(Locale.ROOT),
+                        result.winRate(), result.drawRate(), result.lossRate());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void replay(Path dump, long seed, List<String> strategies) throws IOException {
+        try (FileChannel channel = FileChannel.open(dump, StandardOpenOption.READ)) {
+            HistoryDumpReader reader = new HistoryDumpReader(channel);
+            long start = System.nanoTime();
+            reader.readHeader();
+            List<ReplayResult> results = new ReplayScorer(new MoveService()).score(seed, strategies, reader);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            long rounds = results.get(0).rounds();
+            System.out.printf(Locale.ROOT,
+                    "Replayed %,d rounds from %s (%,d bytes, %.1f MB/s) against %d strategies in %.2f s.%n%n",
+                    rounds, dump, reader.bytesRead(), reader.bytesRead() / seconds / (1024 * 1024),
+                    strategies.size(), seconds);
+            System.out.printf(Locale.ROOT, "%-12s %8s %8s %8s%n", "strategy", "win", "draw", "loss");
+            for (ReplayResult result : results) {
+                System.out.printf(Locale.ROOT, "%-12s %8.4f %8.4f %8.4f%n", result.strategy(),
+                        result.winRate(), result.drawRate(), result.lossRate());
+            }
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
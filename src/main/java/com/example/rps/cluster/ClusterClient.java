@@ -0,0 +1,119 @@
+package com.example.rps.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * HTTP calls between members: forwarded game requests, membership updates and game handoffs.
+ * <p>
+ * One {@link HttpClient} is shared by all request threads and keeps connections to the other members alive, so a
+ * forwarded request costs one extra round trip on an open connection rather than a new connection.
+ */
+@Component
+@ConditionalOnProperty(name = "rps.cluster.enabled", havingValue = "true")
+public class ClusterClient {
+
+    /**
+     * Marks a request sent by another member. Such requests are always handled locally, so members that briefly
+     * disagree about the ring cannot forward a request back and forth. The header is only trusted together with the
+     * {@link ClusterSecret}.
+     */
+    public static final String FORWARDED_BY_HEADER = "X-Rps-Forwarded-By";
+
+    /**
+     * Names the client of a forwarded request, so the owner charges its rounds to the client rather than to the
+     * member. Trusted like {@link #FORWARDED_BY_HEADER}.
+     */
+    public static final String CLIENT_HEADER = "X-Rps-Client";
+
+    static final String MEMBERS_PATH = "/cluster/members";
+    static final String HANDOFF_PATH = "/cluster/handoff";
+
+    private final ClusterNode self;
+    private final ClusterSecret secret;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+
+    @Autowired
+    public ClusterClient(ClusterMembership membership,
+                         ClusterSecret secret,
+                         ObjectMapper objectMapper,
+                         @Value("${rps.cluster.forward-timeout:5s}") Duration timeout) {
+        this.self = membership.self();
+        this.secret = secret;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    /**
+     * Sends a request to another member and returns its response unchanged.
+     *
+     * @param contentType Content type of the body, or {@code null} if the request has none.
+     * @param client      Key of the client the request was admitted for, or {@code null} without admission control.
+     */
+    public HttpResponse<byte[]> forward(ClusterNode node, String method, String pathAndQuery, String contentType,
+                                        byte[] body, String client) throws IOException, InterruptedException {
+        HttpRequest.Builder request = request(node, pathAndQuery)
+                .method(method, body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        if (contentType != null) {
+            request.header("Content-Type", contentType);
+        }
+        if (client != null) {
+            request.header(CLIENT_HEADER, client);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * Replaces the member list of another node.
+     */
+    public void sendMembers(ClusterNode node, List<ClusterNode> members) throws IOException, InterruptedException {
+        List<String> urls = members.stream().map(ClusterNode::toString).toList();
+        HttpRequest request = request(node, MEMBERS_PATH)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(urls)))
+                .build();
+        expectSuccess(node, httpClient.send(request, HttpResponse.BodyHandlers.discarding()));
+    }
+
+    /**
+     * Sends games encoded by {@link GameHandoff} to their new owner.
+     */
+    public void handOff(ClusterNode node, byte[] games) throws IOException, InterruptedException {
+        HttpRequest request = request(node, HANDOFF_PATH)
+                .header("Content-Type", "application/octet-stream")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(games))
+                .build();
+        expectSuccess(node, httpClient.send(request, HttpResponse.BodyHandlers.discarding()));
+    }
+
+    private HttpRequest.Builder request(ClusterNode node, String pathAndQuery) {
+        return HttpRequest.newBuilder(node.resolve(pathAndQuery))
+                .timeout(timeout)
+                .header(FORWARDED_BY_HEADER, self.toString())
+                .header(ClusterSecret.HEADER, secret.value());
+    }
+
+    private static void expectSuccess(ClusterNode node, HttpResponse<?> response) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Node " + node + " answered " + response.statusCode() + " to " + response.uri());
+        }
+    }
+}
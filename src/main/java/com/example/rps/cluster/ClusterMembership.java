@@ -0,0 +1,106 @@
+package com.example.rps.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * This node's view of the cluster, enabled with {@code rps.cluster.enabled=true}.
+ * <p>
+ * The ring is immutable and replaced as a whole when the membership changes, so request threads read it through a
+ * volatile field without locking. Members learn of a change from the node that handled it, which sends every member
+ * the complete new list; applying the same list twice changes nothing.
+ */
+@Component
+@ConditionalOnProperty(name = "rps.cluster.enabled", havingValue = "true")
+public class ClusterMembership {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterMembership.class);
+
+    private final ClusterNode self;
+    private final int virtualNodes;
+    private final List<Consumer<ConsistentHashRing>> listeners = new CopyOnWriteArrayList<>();
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile ConsistentHashRing ring;
+
+    /**
+     * @param self         Base URL of this node.
+     * @param nodes        Comma-separated base URLs of the initial members; this node is added if missing.
+     * @param virtualNodes Points per node on the hash ring.
+     */
+    @Autowired
+    public ClusterMembership(@Value("${rps.cluster.self:http://localhost:${server.port:8080}}") String self,
+                             @Value("${rps.cluster.nodes:}") String nodes,
+                             @Value("${rps.cluster.virtual-nodes:128}") int virtualNodes) {
+        this(ClusterNode.parse(self), Arrays.stream(nodes.split(","))
+                .filter(url -> !url.isBlank())
+                .map(ClusterNode::parse)
+                .toList(), virtualNodes);
+    }
+
+    public ClusterMembership(ClusterNode self, Collection<ClusterNode> nodes, int virtualNodes) {
+        this.self = self;
+        this.virtualNodes = virtualNodes;
+        HashSet<ClusterNode> members = new HashSet<>(nodes);
+        members.add(self);
+        this.ring = new ConsistentHashRing(members, virtualNodes);
+        log.info("Cluster node {} starting with members {}.", self, ring.nodes());
+    }
+
+    public ClusterNode self() {
+        return self;
+    }
+
+    public ConsistentHashRing ring() {
+        return ring;
+    }
+
+    /**
+     * @return Whether this node owns the game under the current ring.
+     */
+    public boolean isLocal(String gameId) {
+        return self.equals(ring.ownerOf(gameId));
+    }
+
+    /**
+     * Replaces the members. Listeners are called with the new ring, on the calling thread.
+     *
+     * @return Whether the members changed.
+     */
+    public boolean update(Collection<ClusterNode> nodes) {
+        updateLock.lock();
+        try {
+            if (new HashSet<>(nodes).equals(new HashSet<>(ring.nodes()))) {
+                return false;
+            }
+            ConsistentHashRing updated = new ConsistentHashRing(nodes, virtualNodes);
+            ring = updated;
+            log.info("Cluster members changed to {}.", updated.nodes());
+            for (Consumer<ConsistentHashRing> listener : listeners) {
+                listener.accept(updated);
+            }
+            return true;
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Registers a callback for membership changes, for instance to hand off games this node no longer owns.
+     */
+    public void addListener(Consumer<ConsistentHashRing> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.rps.cluster;
+
+import java.net.URI;
+
+/**
+ * A member of the cluster, identified by the base URL clients and other members reach it at.
+ */
+public record ClusterNode(URI url) {
+
+    /**
+     * Parses a base URL such as {@code http://localhost:8081}, ignoring a trailing slash so that every member names
+     * a node the same way.
+     */
+    public static ClusterNode parse(String url) {
+        String trimmed = url.trim();
+        while (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        URI uri = URI.create(trimmed);
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            throw new IllegalArgumentException("Expected a base URL such as http://host:port, got: " + url);
+        }
+        return new ClusterNode(uri);
+    }
+
+    /**
+     * @return The URL of the given path and query on this node.
+     */
+    public URI resolve(String pathAndQuery) {
+        return URI.create(url + pathAndQuery);
+    }
+
+    @Override
+    public String toString() {
+        return url.toString();
+    }
+}
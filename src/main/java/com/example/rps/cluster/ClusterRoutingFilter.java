@@ -0,0 +1,249 @@
+package com.example.rps.cluster;
+
+import com.example.rps.controller.ReactiveGameController;
+import com.example.rps.dto.GameResponse;
+import com.example.rps.dto.MoveRequest;
+import com.example.rps.ratelimit.RateLimits;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sends requests for games owned by another member to that member, so any node can serve any game.
+ * <p>
+ * The game ID is taken from the path, or from the JSON body for {@code /game/move}. Requests for local games,
+ * requests that name no game and requests already forwarded by a member, carrying the {@link ClusterSecret}, go down
+ * the filter chain unchanged.
+ * With {@code rps.cluster.routing=forward} the request is proxied and the owner's response is copied back; with
+ * {@code redirect} the client gets a 307 to the owner, which keeps the method and body, and can talk to the owner
+ * directly from then on. WebSocket handshakes on {@code /game/{gameId}/play} are always redirected.
+ */
+@Component
+@Profile("!" + ReactiveGameController.PROFILE)
+@ConditionalOnProperty(name = "rps.cluster.enabled", havingValue = "true")
+public class ClusterRoutingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterRoutingFilter.class);
+
+    static final String ROUTING_FORWARD = "forward";
+    static final String ROUTING_REDIRECT = "redirect";
+
+    private static final String GAME_PREFIX = "/game/";
+    private static final String MOVE_PATH = "/game/move";
+    private static final String STATS_PREFIX = "/game/stats/";
+    private static final String TERMINATE_PREFIX = "/game/terminate/";
+    private static final String MOVES_SUFFIX = "/moves";
+    private static final String PLAY_SUFFIX = "/play";
+
+    private final ClusterMembership membership;
+    private final ClusterClient client;
+    private final ClusterSecret secret;
+    private final ObjectMapper objectMapper;
+    private final boolean redirect;
+
+    @Autowired
+    public ClusterRoutingFilter(ClusterMembership membership,
+                                ClusterClient client,
+                                ClusterSecret secret,
+                                ObjectMapper objectMapper,
+                                @Value("${rps.cluster.routing:forward}") String routing) {
+        if (!ROUTING_FORWARD.equals(routing) && !ROUTING_REDIRECT.equals(routing)) {
+            throw new IllegalArgumentException("Unknown cluster routing: " + routing + ". Expected forward or redirect.");
+        }
+        this.membership = membership;
+        this.client = client;
+        this.secret = secret;
+        this.objectMapper = objectMapper;
+        this.redirect = ROUTING_REDIRECT.equals(routing);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !path(request).startsWith(GAME_PREFIX)
+                || request.getHeader(ClusterClient.FORWARDED_BY_HEADER) != null
+                && secret.matches(request.getHeader(ClusterSecret.HEADER));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = path(request);
+        byte[] body = null;
+        String gameId;
+        if (MOVE_PATH.equals(path)) {
+            body = request.getInputStream().readAllBytes();
+            request = new CachedBodyRequest(request, body);
+            gameId = gameIdInBody(body);
+        } else {
+            gameId = gameIdInPath(path);
+        }
+        if (gameId == null || membership.isLocal(gameId)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ClusterNode owner = membership.ring().ownerOf(gameId);
+        String pathAndQuery = request.getQueryString() == null ? path : path + "?" + request.getQueryString();
+        // A WebSocket connection cannot be proxied request by request, so the client is sent to the owner.
+        if (redirect || path.endsWith(PLAY_SUFFIX)) {
+            response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+            response.setHeader(HttpHeaders.LOCATION, owner.resolve(pathAndQuery).toString());
+            return;
+        }
+        try {
+            HttpResponse<byte[]> forwarded = client.forward(owner, request.getMethod(), pathAndQuery,
+                    request.getContentType(), body != null ? body : request.getInputStream().readAllBytes(),
+                    (String) request.getAttribute(RateLimits.CLIENT_ATTRIBUTE));
+            response.setStatus(forwarded.statusCode());
+            forwarded.headers().firstValue(HttpHeaders.CONTENT_TYPE).ifPresent(response::setContentType);
+            response.getOutputStream().write(forwarded.body());
+        } catch (IOException e) {
+            log.warn("Failed to forward {} {} to {}: {}", request.getMethod(), path, owner, e.toString());
+            writeError(response, "Node " + owner + " owning game " + gameId + " is unavailable.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeError(response, "Interrupted while forwarding to node " + owner + ".");
+        }
+    }
+
+    /**
+     * @return The game ID in a game-specific path, or {@code null} for paths that name no game.
+     */
+    static String gameIdInPath(String path) {
+        if (path.startsWith(STATS_PREFIX)) {
+            String gameId = path.substring(STATS_PREFIX.length());
+            return gameId.equals("global") ? null : gameId;
+        }
+        if (path.startsWith(TERMINATE_PREFIX)) {
+            return path.substring(TERMINATE_PREFIX.length());
+        }
+        String rest = path.substring(GAME_PREFIX.length());
+        if (rest.endsWith(MOVES_SUFFIX)) {
+            rest = rest.substring(0, rest.length() - MOVES_SUFFIX.length());
+        } else if (rest.endsWith(PLAY_SUFFIX)) {
+            rest = rest.substring(0, rest.length() - PLAY_SUFFIX.length());
+        }
+        if (rest.isEmpty() || rest.contains("/") || rest.equals("start") || rest.equals("sessions")
+                || rest.equals("export")) {
+            return null;
+        }
+        return rest;
+    }
+
+    /**
+     * @return The game ID of a move request, or {@code null} if the body cannot be read; the controller then answers
+     * the malformed request locally.
+     */
+    private String gameIdInBody(byte[] body) {
+        try {
+            return objectMapper.readValue(body, MoveRequest.class).gameId();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void writeError(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new GameResponse(false, message));
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * Request whose body was read by the filter, so that the handler can read it again.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * The body is already buffered, so it is all available at once and the listener is told so right away.
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
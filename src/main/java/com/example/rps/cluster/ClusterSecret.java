@@ -0,0 +1,45 @@
+package com.example.rps.cluster;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Shared secret that members send with every request to each other, set with {@code rps.cluster.secret}.
+ * <p>
+ * Only requests carrying it may change the members, hand off games, or skip routing as forwarded requests, so a
+ * client cannot take over games or the ring by pretending to be a member.
+ */
+@Component
+@ConditionalOnProperty(name = "rps.cluster.enabled", havingValue = "true")
+public class ClusterSecret {
+
+    public static final String HEADER = "X-Rps-Cluster-Secret";
+
+    private final byte[] secret;
+
+    @Autowired
+    public ClusterSecret(@Value("${rps.cluster.secret:}") String secret) {
+        if (secret.isBlank()) {
+            throw new IllegalArgumentException("Cluster mode needs a shared secret in rps.cluster.secret.");
+        }
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    String value() {
+        return new String(secret, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares in constant time, so response times reveal nothing about the secret.
+     *
+     * @param presented Value of the {@value #HEADER} header, or {@code null} if the request has none.
+     */
+    public boolean matches(String presented) {
+        return presented != null && MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8));
+    }
+}
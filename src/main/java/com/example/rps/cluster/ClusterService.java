@@ -0,0 +1,98 @@
+package com.example.rps.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Joins and removes members. The node handling a change sends the complete new member list to every old and new
+ * member, and each of them hands off the games it no longer owns.
+ */
+@Service
+@ConditionalOnProperty(name = "rps.cluster.enabled", havingValue = "true")
+public class ClusterService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterService.class);
+
+    private final ClusterMembership membership;
+    private final ClusterClient client;
+
+    public ClusterService(ClusterMembership membership, ClusterClient client) {
+        this.membership = membership;
+        this.client = client;
+    }
+
+    public ClusterNode getSelf() {
+        return membership.self();
+    }
+
+    public List<ClusterNode> getMembers() {
+        return membership.ring().nodes();
+    }
+
+    /**
+     * Adds a node to the cluster.
+     *
+     * @return The members the change could not be sent to.
+     */
+    public List<ClusterNode> join(ClusterNode node) {
+        Set<ClusterNode> members = new LinkedHashSet<>(getMembers());
+        members.add(node);
+        return change(members);
+    }
+
+    /**
+     * Removes a node from the cluster. A node that removes itself hands off all its games and forwards every
+     * request from then on, so it can be stopped without losing sessions.
+     *
+     * @return The members the change could not be sent to.
+     */
+    public List<ClusterNode> leave(ClusterNode node) {
+        Set<ClusterNode> members = new LinkedHashSet<>(getMembers());
+        members.remove(node);
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("Cannot remove the last member of the cluster.");
+        }
+        return change(members);
+    }
+
+    /**
+     * Applies a member list sent by the node that handled a change.
+     */
+    public void replaceMembers(Collection<ClusterNode> members) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("A cluster needs at least one member.");
+        }
+        membership.update(members);
+    }
+
+    private List<ClusterNode> change(Set<ClusterNode> members) {
+        Set<ClusterNode> recipients = new LinkedHashSet<>(getMembers());
+        recipients.addAll(members);
+        recipients.remove(membership.self());
+
+        List<ClusterNode> updated = List.copyOf(members);
+        membership.update(updated);
+        List<ClusterNode> unreachable = new ArrayList<>();
+        for (ClusterNode recipient : recipients) {
+            try {
+                client.sendMembers(recipient, updated);
+            } catch (IOException e) {
+                log.warn("Failed to send the cluster members to {}: {}", recipient, e.toString());
+                unreachable.add(recipient);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                unreachable.add(recipient);
+            }
+        }
+        return unreachable;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.rps.cluster;
+
+import com.example.rps.util.GameIds;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent-hash ring that maps game IDs to the node owning them.
+ * <p>
+ * Every node is placed at many points on a 64-bit ring (virtual nodes), and a game belongs to the node at the first
+ * point at or after the hash of its ID. Adding or removing a node therefore only moves the games between that node's
+ * points and their predecessors, about {@code 1/n} of all games, and the virtual nodes keep the shares even.
+ * Points are kept in one sorted {@code long[]}, so a lookup is one hash and a binary search without allocation.
+ * A game ID is placed by its numeric value, so every spelling that {@link GameIds#parse} accepts has the same owner.
+ */
+public final class ConsistentHashRing {
+
+    private final List<ClusterNode> nodes;
+    private final long[] points;
+    private final ClusterNode[] owners;
+
+    /**
+     * @param virtualNodes Points per node on the ring.
+     */
+    public ConsistentHashRing(Collection<ClusterNode> nodes, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Virtual nodes must be positive: " + virtualNodes);
+        }
+        // Sorted, so that every member builds the same ring whatever order it learned the nodes in.
+        TreeSet<String> sorted = new TreeSet<>();
+        nodes.forEach(node -> sorted.add(node.toString()));
+        this.nodes = sorted.stream().map(ClusterNode::parse).toList();
+
+        int size = this.nodes.size() * virtualNodes;
+        long[] unsortedPoints = new long[size];
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            unsortedPoints[i] = hash(this.nodes.get(i / virtualNodes) + "#" + i % virtualNodes);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(unsortedPoints[a], unsortedPoints[b]));
+        this.points = new long[size];
+        this.owners = new ClusterNode[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = unsortedPoints[order[i]];
+            owners[i] = this.nodes.get(order[i] / virtualNodes);
+        }
+    }
+
+    /**
+     * @return The node owning the game, or {@code null} if the ring has no nodes. Text that is not a game ID is
+     * placed by its characters.
+     */
+    public ClusterNode ownerOf(String gameId) {
+        if (points.length == 0) {
+            return null;
+        }
+        long id = GameIds.parse(gameId);
+        int index = Arrays.binarySearch(points, id == GameIds.INVALID ? hash(gameId) : hash(id));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public boolean contains(ClusterNode node) {
+        return nodes.contains(node);
+    }
+
+    /**
+     * @return The nodes of the ring, sorted by URL.
+     */
+    public List<ClusterNode> nodes() {
+        return nodes;
+    }
+
+    /**
+     * 64-bit FNV-1a over the characters, finished with the MurmurHash3 mix so that similar IDs spread over the ring.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    /**
+     * Places a parsed game ID. IDs are random already, but the mix keeps IDs that differ in few bits apart.
+     */
+    static long hash(long id) {
+        return mix(id);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
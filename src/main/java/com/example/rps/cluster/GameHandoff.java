@@ -0,0 +1,269 @@
+package com.example.rps.cluster;
+
+import com.example.rps.model.PackedHistory;
+import com.example.rps.repository.GameRepository;
+import com.example.rps.service.GameService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves games to their new owner after a membership change.
+ * <p>
+ * Games are sent in batches: each game of a batch is released (closed, so no round can be lost) and the batch is
+ * posted to the new owner as the game IDs and packed histories. While a batch is in flight its games answer 404. A
+ * released game stays in this node's store and journal until the owner confirms the batch, so a crash meanwhile
+ * recovers it here, and it moves with the next membership change.
+ * <p>
+ * A failed send is retried with growing delays, up to {@code rps.cluster.handoff-attempts} attempts. Before each
+ * attempt the games are assigned by the current ring, so a later membership change redirects them, and games the ring
+ * gives back to this node are reopened here. Games still undelivered after the last attempt are reopened here as
+ * well, and move with the next membership change; meanwhile requests routed to their owner answer 404.
+ * <p>
+ * Every batch carries a handoff ID that its retries reuse. The receiver remembers the handoff each game last arrived
+ * with and skips a game it already received in the same handoff, so a retry after a send that timed out but arrived
+ * neither duplicates the game nor brings it back after it was played on or terminated. It also skips games it
+ * already holds.
+ */
+@Component
+@ConditionalOnProperty(name = "rps.cluster.enabled", havingValue = "true")
+public class GameHandoff {
+
+    private static final Logger log = LoggerFactory.getLogger(GameHandoff.class);
+
+    private static final int GAMES_PER_BATCH = 1_000;
+    private static final long FIRST_RETRY_DELAY_MS = 100;
+    private static final long MAX_RETRY_DELAY_MS = 5_000;
+
+    /**
+     * Games whose handoff ID the receiver remembers; well beyond the games that can be in flight at once.
+     */
+    private static final int REMEMBERED_GAMES = 100_000;
+
+    private final ClusterMembership membership;
+    private final ClusterClient client;
+    private final GameService gameService;
+    private final GameRepository games;
+    private final int maxAttempts;
+    // One thread, so rebalances run one after another in the order of the membership changes.
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cluster-handoff");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Game ID to the handoff it last arrived with, oldest first.
+    private final Map<String, Long> receivedHandoffs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > REMEMBERED_GAMES;
+        }
+    };
+    private final ReentrantLock receivedLock = new ReentrantLock();
+
+    /**
+     * @param maxAttempts Attempts to deliver a batch before its games are reopened here.
+     */
+    @Autowired
+    public GameHandoff(ClusterMembership membership,
+                       ClusterClient client,
+                       GameService gameService,
+                       GameRepository games,
+                       @Value("${rps.cluster.handoff-attempts:8}") int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("rps.cluster.handoff-attempts must be at least 1: " + maxAttempts);
+        }
+        this.membership = membership;
+        this.client = client;
+        this.gameService = gameService;
+        this.games = games;
+        this.maxAttempts = maxAttempts;
+        membership.addListener(ring -> executor.execute(() -> rebalance(ring)));
+    }
+
+    /**
+     * Sends every open game the given ring assigns to another node to its owner.
+     */
+    void rebalance(ConsistentHashRing ring) {
+        ClusterNode self = membership.self();
+        Map<ClusterNode, List<String>> moving = new HashMap<>();
+        games.forEach((gameId, game) -> {
+            ClusterNode owner = ring.ownerOf(gameId);
+            if (owner != null && !owner.equals(self) && !game.isClosed()) {
+                moving.computeIfAbsent(owner, node -> new ArrayList<>()).add(gameId);
+            }
+        });
+        moving.forEach((owner, gameIds) -> {
+            int sent = 0;
+            for (int from = 0; from < gameIds.size(); from += GAMES_PER_BATCH) {
+                sent += sendBatch(gameIds.subList(from, Math.min(from + GAMES_PER_BATCH, gameIds.size())));
+            }
+            log.info("Handed off {} of {} games to {}.", sent, gameIds.size(), owner);
+        });
+    }
+
+    /**
+     * Adopts the games of a handoff body, skipping those that already arrived with the same handoff.
+     *
+     * @return Number of games adopted.
+     */
+    public int receive(InputStream body) throws IOException {
+        DataInputStream in = new DataInputStream(body);
+        long handoffId = in.readLong();
+        int count = in.readInt();
+        Map<String, PackedHistory> received = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String gameId = in.readUTF();
+            received.put(gameId, PackedHistory.readFrom(in));
+        }
+        int adopted = 0;
+        for (Map.Entry<String, PackedHistory> entry : received.entrySet()) {
+            String gameId = entry.getKey();
+            if (!firstArrival(gameId, handoffId)) {
+                continue;
+            }
+            try {
+                if (gameService.adoptGame(gameId, entry.getValue())) {
+                    adopted++;
+                }
+            } catch (RuntimeException e) {
+                // The sender retries the batch, and this game must not be skipped then.
+                forgetArrival(gameId, handoffId);
+                throw e;
+            }
+        }
+        return adopted;
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Records that a game arrived with a handoff, before it is adopted, so a concurrent retry cannot adopt it again.
+     *
+     * @return Whether the game had not arrived with this handoff before.
+     */
+    private boolean firstArrival(String gameId, long handoffId) {
+        receivedLock.lock();
+        try {
+            Long previous = receivedHandoffs.put(gameId, handoffId);
+            return previous == null || previous != handoffId;
+        } finally {
+            receivedLock.unlock();
+        }
+    }
+
+    private void forgetArrival(String gameId, long handoffId) {
+        receivedLock.lock();
+        try {
+            receivedHandoffs.remove(gameId, handoffId);
+        } finally {
+            receivedLock.unlock();
+        }
+    }
+
+    private int sendBatch(List<String> gameIds) {
+        Map<String, PackedHistory> released = new LinkedHashMap<>();
+        for (String gameId : gameIds) {
+            PackedHistory history = gameService.releaseGame(gameId);
+            if (history != null) {
+                released.put(gameId, history);
+            }
+        }
+        return deliver(ThreadLocalRandom.current().nextLong(), released);
+    }
+
+    /**
+     * Sends released games to the owners the current ring assigns them, until every owner has confirmed or the
+     * attempts run out. Games the ring assigns to this node, and games left after the last attempt, are reopened here.
+     *
+     * @return Number of games sent to other nodes.
+     */
+    private int deliver(long handoffId, Map<String, PackedHistory> released) {
+        int sent = 0;
+        long delay = FIRST_RETRY_DELAY_MS;
+        for (int attempt = 1; ; attempt++) {
+            ConsistentHashRing ring = membership.ring();
+            Map<ClusterNode, Map<String, PackedHistory>> byOwner = new HashMap<>();
+            released.forEach((gameId, history) ->
+                    byOwner.computeIfAbsent(ring.ownerOf(gameId), node -> new LinkedHashMap<>()).put(gameId, history));
+            for (Map.Entry<ClusterNode, Map<String, PackedHistory>> entry : byOwner.entrySet()) {
+                ClusterNode owner = entry.getKey();
+                Map<String, PackedHistory> batch = entry.getValue();
+                if (owner.equals(membership.self())) {
+                    batch.forEach(gameService::reclaimGame);
+                    released.keySet().removeAll(batch.keySet());
+                    continue;
+                }
+                try {
+                    client.handOff(owner, encode(handoffId, batch));
+                    gameService.gamesHandedOff(batch.keySet());
+                    sent += batch.size();
+                    released.keySet().removeAll(batch.keySet());
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Failed to hand off {} games to {} (attempt {} of {}): {}",
+                            batch.size(), owner, attempt, maxAttempts, e.toString());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return keep(released, sent, "Interrupted while handing off {} games; keeping them here.");
+                }
+            }
+            if (released.isEmpty()) {
+                return sent;
+            }
+            if (attempt == maxAttempts) {
+                return keep(released, sent, "Gave up handing off {} games; keeping them here until the next membership change.");
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return keep(released, sent, "Interrupted while handing off {} games; keeping them here.");
+            }
+            delay = Math.min(delay * 2, MAX_RETRY_DELAY_MS);
+        }
+    }
+
+    /**
+     * Reopens undelivered games here, when the attempts run out or the node shuts down during a handoff.
+     */
+    private int keep(Map<String, PackedHistory> released, int sent, String message) {
+        log.warn(message, released.size());
+        released.forEach(gameService::reclaimGame);
+        return sent;
+    }
+
+    private static byte[] encode(long handoffId, Map<String, PackedHistory> released) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(handoffId);
+        out.writeInt(released.size());
+        for (Map.Entry<String, PackedHistory> entry : released.entrySet()) {
+            out.writeUTF(entry.getKey());
+            entry.getValue().writeTo(out);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.rps.cluster;
+
+import com.example.rps.service.GameIdGenerator;
+import com.example.rps.service.RandomGameIdGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Random IDs that this node owns on the current ring, so a new game is created where it belongs and the client's
+ * first requests need no forwarding. Takes as many draws as there are members on average.
+ */
+@Component
+@ConditionalOnProperty(name = "rps.cluster.enabled", havingValue = "true")
+public class LocalGameIdGenerator implements GameIdGenerator {
+
+    private final ClusterMembership membership;
+    private final RandomGameIdGenerator ids = new RandomGameIdGenerator();
+
+    public LocalGameIdGenerator(ClusterMembership membership) {
+        this.membership = membership;
+    }
+
+    @Override
+    public String nextId() {
+        ConsistentHashRing ring = membership.ring();
+        ClusterNode self = membership.self();
+        if (!ring.contains(self)) {
+            // This node has left the ring; its games are forwarded to their owners like any other.
+            return ids.nextId();
+        }
+        while (true) {
+            String gameId = ids.nextId();
+            if (self.equals(ring.ownerOf(gameId))) {
+                return gameId;
+            }
+        }
+    }
+}
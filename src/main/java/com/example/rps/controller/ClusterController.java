@@ -0,0 +1,149 @@
+package com.example.rps.controller;
+
+import com.example.rps.cluster.ClusterNode;
+import com.example.rps.cluster.ClusterSecret;
+import com.example.rps.cluster.ClusterService;
+import com.example.rps.cluster.GameHandoff;
+import com.example.rps.dto.ClusterMembersResponse;
+import com.example.rps.dto.GameResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Membership endpoints of cluster mode, enabled with {@code rps.cluster.enabled=true}. Joining or removing a node
+ * through any member updates every member. Every endpoint that changes the cluster requires the
+ * {@link ClusterSecret} in the {@value ClusterSecret#HEADER} header and answers 403 without it.
+ */
+@RestController
+@RequestMapping("/cluster")
+@Profile("!" + ReactiveGameController.PROFILE)
+@ConditionalOnProperty(name = "rps.cluster.enabled", havingValue = "true")
+public class ClusterController {
+
+    private final ClusterService clusterService;
+    private final GameHandoff gameHandoff;
+    private final ClusterSecret clusterSecret;
+
+    public ClusterController(ClusterService clusterService, GameHandoff gameHandoff, ClusterSecret clusterSecret) {
+        this.clusterService = clusterService;
+        this.gameHandoff = gameHandoff;
+        this.clusterSecret = clusterSecret;
+    }
+
+    /**
+     * Lists the members of the cluster as this node sees them.
+     *
+     * @return A ResponseEntity containing this node's URL and the members.
+     */
+    @GetMapping("/members")
+    public ResponseEntity<ClusterMembersResponse> getMembers() {
+        return ResponseEntity.ok(members(List.of()));
+    }
+
+    /**
+     * Adds a node to the cluster; games it now owns are handed off to it.
+     *
+     * @param url Base URL of the node, such as {@code http://localhost:8082}.
+     * @return A ResponseEntity containing the new members and the members that could not be told about the change,
+     * or a 400 status if the URL is invalid.
+     */
+    @PostMapping("/members")
+    public ResponseEntity<?> join(@RequestParam String url,
+                                  @RequestHeader(value = ClusterSecret.HEADER, required = false) String secret) {
+        if (!clusterSecret.matches(secret)) {
+            return forbidden();
+        }
+        try {
+            return ResponseEntity.ok(members(clusterService.join(ClusterNode.parse(url))));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    /**
+     * Removes a node from the cluster; its games are handed off to the remaining members.
+     *
+     * @param url Base URL of the node.
+     * @return A ResponseEntity containing the new members and the members that could not be told about the change,
+     * or a 400 status if the URL is invalid or names the last member.
+     */
+    @DeleteMapping("/members")
+    public ResponseEntity<?> leave(@RequestParam String url,
+                                   @RequestHeader(value = ClusterSecret.HEADER, required = false) String secret) {
+        if (!clusterSecret.matches(secret)) {
+            return forbidden();
+        }
+        try {
+            return ResponseEntity.ok(members(clusterService.leave(ClusterNode.parse(url))));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    /**
+     * Replaces this node's member list. Called by the member that handled a join or removal.
+     *
+     * @param urls Base URLs of all members.
+     * @return A ResponseEntity containing the members, or a 400 status if the list is empty or invalid.
+     */
+    @PutMapping("/members")
+    public ResponseEntity<?> replaceMembers(@RequestBody List<String> urls,
+                                            @RequestHeader(value = ClusterSecret.HEADER, required = false) String secret) {
+        if (!clusterSecret.matches(secret)) {
+            return forbidden();
+        }
+        try {
+            clusterService.replaceMembers(urls.stream().map(ClusterNode::parse).toList());
+            return ResponseEntity.ok(members(List.of()));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    /**
+     * Adopts games handed off by another member, as a handoff ID followed by game IDs and packed histories.
+     *
+     * @return A ResponseEntity with the number of games adopted, or a 400 status if the body is truncated.
+     */
+    @PostMapping(value = "/handoff", consumes = "application/octet-stream")
+    public ResponseEntity<GameResponse> handoff(InputStream body,
+                                                @RequestHeader(value = ClusterSecret.HEADER, required = false) String secret) {
+        if (!clusterSecret.matches(secret)) {
+            return forbidden();
+        }
+        try {
+            int adopted = gameHandoff.receive(body);
+            return ResponseEntity.ok(new GameResponse(true, String.format("Adopted %d games.", adopted)));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(new GameResponse(false, "Invalid handoff: " + e.getMessage()));
+        }
+    }
+
+    private ClusterMembersResponse members(List<ClusterNode> unreachable) {
+        return ClusterMembersResponse.from(clusterService.getSelf(), clusterService.getMembers(), unreachable);
+    }
+
+    private static ResponseEntity<GameResponse> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new GameResponse(false, "Missing or wrong " + ClusterSecret.HEADER + " header."));
+    }
+
+    private static ResponseEntity<GameResponse> badRequest(RuntimeException e) {
+        return ResponseEntity.badRequest().body(new GameResponse(false, e.getMessage()));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.rps.controller;
+
+import com.example.rps.export.HistoryExportService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.channels.Channels;
+
+/**
+ * Analytics export of the game histories, enabled with {@code rps.export.endpoint-enabled=true}. It is off by default
+ * because it hands out every game's rounds to anyone who can reach it; expose it only to trusted callers.
+ */
+@RestController
+@RequestMapping("/game")
+@Profile("!" + ReactiveGameController.PROFILE)
+@ConditionalOnProperty(name = "rps.export.endpoint-enabled", havingValue = "true")
+public class ExportController {
+
+    static final String EXPORT_FILE_NAME = "games.rpsx";
+
+    private final HistoryExportService historyExportService;
+
+    public ExportController(HistoryExportService historyExportService) {
+        this.historyExportService = historyExportService;
+    }
+
+    /**
+     * Streams the rounds of every live and archived game as a columnar binary dump, for offline analysis with
+     * {@code SimulationApplication --replay}. The dump is written while it is sent, so its size is not bounded by memory.
+     *
+     * @return A ResponseEntity streaming the dump.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportHistories() {
+        StreamingResponseBody body = out -> historyExportService.export(Channels.newChannel(out));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + EXPORT_FILE_NAME + "\"")
+                .body(body);
+    }
+}
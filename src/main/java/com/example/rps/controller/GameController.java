@@ -1,56 +1,91 @@
 package com.example.rps.controller;
 
+import com.example.rps.dto.BatchMoveResponse;
 import com.example.rps.dto.GameResponse;
+import com.example.rps.dto.GameSnapshotResponse;
+import com.example.rps.dto.GameStartedResponse;
+import com.example.rps.dto.GameStatisticsResponse;
+import com.example.rps.dto.GlobalStatisticsResponse;
 import com.example.rps.dto.MoveRequest;
+import com.example.rps.dto.PackedGameSnapshotResponse;
+import com.example.rps.dto.RoundResponse;
+import com.example.rps.dto.SessionStatisticsResponse;
+import com.example.rps.dto.StatisticsResponse;
 import com.example.rps.exception.GameNotFoundException;
-import com.example.rps.model.Game;
-import com.example.rps.model.GameResult;
+import com.example.rps.model.GameSnapshot;
+import com.example.rps.model.GameStatistics;
 import com.example.rps.model.Move;
+import com.example.rps.model.PlayedRound;
+import com.example.rps.model.PlayedRounds;
+import com.example.rps.ratelimit.RateLimits;
 import com.example.rps.service.GameService;
+import com.example.rps.service.GlobalStatisticsService;
 import com.example.rps.service.MoveService;
 import com.example.rps.service.StatisticsService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * REST endpoints of the game. Successful calls return typed records; failures return a {@link GameResponse}
+ * with {@code valid=false} and the reason as its message.
+ */
 @RestController
 @RequestMapping("/game")
+@Profile("!" + ReactiveGameController.PROFILE)
 public class GameController {
 
+    static final int MAX_BATCH_SIZE = 10_000;
+
+    static final String PACKED_ENCODING = "packed";
+
+    static final String TOO_MANY_MOVES = "Too many moves; retry later.";
+
     private final GameService gameService;
     private final MoveService moveService;
     private final StatisticsService statisticsService;
+    private final GlobalStatisticsService globalStatisticsService;
+    private final RateLimits rateLimits;
 
+    /**
+     * @param rateLimits Present while admission control is enabled.
+     */
     @Autowired
     public GameController(GameService gameService,
                           MoveService moveService,
-                          StatisticsService statisticsService) {
+                          StatisticsService statisticsService,
+                          GlobalStatisticsService globalStatisticsService,
+                          ObjectProvider<RateLimits> rateLimits) {
         this.gameService = gameService;
         this.moveService = moveService;
         this.statisticsService = statisticsService;
+        this.globalStatisticsService = globalStatisticsService;
+        this.rateLimits = rateLimits.getIfAvailable();
     }
 
     /**
      * Starts a new Rock-Paper-Scissors game and returns the game ID.
      *
-     * @return A ResponseEntity with a message containing the new game ID.
+     * @return A ResponseEntity with the new game ID.
      */
     @PostMapping("/start")
-    public ResponseEntity<GameResponse> startGame() {
-        String gameId = gameService.startNewGame();
-        statisticsService.initializeStatistics(gameId);
-        String message = String.format("Game started! Your game ID is: %s", gameId);
-
-        return ResponseEntity.ok(new GameResponse(true, message));
+    public ResponseEntity<GameStartedResponse> startGame() {
+        return ResponseEntity.ok(new GameStartedResponse(true, gameService.startNewGame()));
     }
 
     /**
@@ -61,21 +96,49 @@ public class GameController {
      * Returns a 404 status if the game is not found or an invalid move is provided.
      */
     @PostMapping("/move")
-    public ResponseEntity<GameResponse> makeMove(@RequestBody MoveRequest request) {
+    public ResponseEntity<?> makeMove(@RequestBody MoveRequest request) {
         try {
-            Game game = gameService.getGameOrThrow(request.gameId());
             Move userMove = moveService.convertToEnum(request.move(), Move.class);
+            PlayedRound played = gameService.playRound(request.gameId(), userMove);
 
-            GameResult result = gameService.playRound(request.gameId(), userMove);
-            Move computerMove = game.getComputerMoves().get(game.getComputerMoves().size() - 1);
-            Map<String, Integer> stats = statisticsService.getStatisticsByGameId(request.gameId());
+            return ResponseEntity.ok(RoundResponse.from(played.round(), played.statistics()));
+        } catch (GameNotFoundException | IllegalArgumentException e) {
+            return notFound(e);
+        }
+    }
+
+    /**
+     * Plays a batch of moves as consecutive rounds of one game.
+     *
+     * @param gameId The ID of the game to play.
+     * @param moves  The user's moves, in the order they should be played.
+     * @param client The client the rate limit filter admitted the request for; every move takes one of its tokens.
+     * @return A ResponseEntity containing the computer's move and the result of every round, plus the final statistics.
+     * Returns a 400 status if the batch is empty or too large, a 429 status if the client has played too many moves,
+     * and a 404 status if the game is not found or a move is invalid.
+     */
+    @PostMapping("/{gameId}/moves")
+    public ResponseEntity<?> makeMoves(@PathVariable String gameId, @RequestBody List<String> moves,
+                                       @RequestAttribute(name = RateLimits.CLIENT_ATTRIBUTE, required = false) String client) {
+        if (moves.isEmpty() || moves.size() > MAX_BATCH_SIZE) {
+            String message = String.format("A batch must contain between 1 and %d moves.", MAX_BATCH_SIZE);
+            return ResponseEntity.badRequest().body(new GameResponse(false, message));
+        }
+        long wait = rateLimits == null ? 0 : rateLimits.tryAcquireRounds(client, moves.size());
+        if (wait > 0) {
+            return tooManyMoves(wait);
+        }
+        try {
+            List<Move> userMoves = new ArrayList<>(moves.size());
+            for (String move : moves) {
+                userMoves.add(moveService.convertToEnum(move, Move.class));
+            }
 
-            String message = String.format("You played %s. Computer played %s. Result: %s. Current stats: %s",
-                    request.move(), computerMove, result, stats);
+            PlayedRounds played = gameService.playRounds(gameId, userMoves);
 
-            return ResponseEntity.ok(new GameResponse(true, message));
+            return ResponseEntity.ok(BatchMoveResponse.from(played.rounds(), played.statistics()));
         } catch (GameNotFoundException | IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new GameResponse(false, e.getMessage()));
+            return notFound(e);
         }
     }
 
@@ -86,28 +149,55 @@ public class GameController {
      * @return A ResponseEntity containing the game statistics or an error message if the game is not found.
      */
     @GetMapping("/stats/{gameId}")
-    public ResponseEntity<GameResponse> getGameStatistics(@PathVariable String gameId) {
+    public ResponseEntity<?> getGameStatistics(@PathVariable String gameId) {
         try {
-            Map<String, Integer> stats = statisticsService.getStatisticsByGameId(gameId);
-            return ResponseEntity.ok(new GameResponse(true, stats.toString()));
+            GameStatistics stats = statisticsService.getStatisticsByGameId(gameId);
+            return ResponseEntity.ok(new GameStatisticsResponse(true, StatisticsResponse.from(stats)));
         } catch (GameNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new GameResponse(false, e.getMessage()));
+            return notFound(e);
         }
     }
 
+    /**
+     * Retrieves statistics across all games: round and result totals, move distributions and the games with the
+     * highest win rate. Served from incrementally maintained counters, so its cost does not grow with the number of games.
+     *
+     * @return A ResponseEntity containing the global statistics.
+     */
+    @GetMapping("/stats/global")
+    public ResponseEntity<GlobalStatisticsResponse> getGlobalStatistics() {
+        return ResponseEntity.ok(GlobalStatisticsResponse.from(globalStatisticsService.getGlobalStatistics()));
+    }
+
+    /**
+     * Retrieves metrics of the session store (live sessions, evictions and the estimated memory they hold) and the
+     * totals of games and rounds played since startup.
+     *
+     * @return A ResponseEntity containing the session metrics.
+     */
+    @GetMapping("/sessions")
+    public ResponseEntity<SessionStatisticsResponse> getSessionStatistics() {
+        return ResponseEntity.ok(SessionStatisticsResponse.from(gameService.getSessionStatistics(), gameService.getActivity()));
+    }
+
     /**
      * Retrieves the game by ID.
      *
-     * @param gameId The ID of the game to retrieve.
+     * @param gameId   The ID of the game to retrieve.
+     * @param encoding Optional history encoding; {@code packed} returns each history column 2-bit packed as Base64.
      * @return A ResponseEntity containing the game details or an error message if the game is not found.
      */
     @GetMapping("/{gameId}")
-    public ResponseEntity<GameResponse> getGameDetails(@PathVariable String gameId) {
+    public ResponseEntity<?> getGameDetails(@PathVariable String gameId,
+                                            @RequestParam(required = false) String encoding) {
         try {
-            Game game = gameService.getGameOrThrow(gameId);
-            return ResponseEntity.ok(new GameResponse(true, game.toString()));
+            GameSnapshot snapshot = gameService.getGameOrThrow(gameId).snapshot();
+            if (PACKED_ENCODING.equalsIgnoreCase(encoding)) {
+                return ResponseEntity.ok(PackedGameSnapshotResponse.from(snapshot));
+            }
+            return ResponseEntity.ok(GameSnapshotResponse.from(snapshot));
         } catch (GameNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new GameResponse(false, e.getMessage()));
+            return notFound(e);
         }
     }
 
@@ -123,7 +213,17 @@ public class GameController {
             gameService.terminateGame(gameId);
             return ResponseEntity.ok(new GameResponse(true, "Game terminated successfully."));
         } catch (GameNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new GameResponse(false, e.getMessage()));
+            return notFound(e);
         }
     }
+
+    static ResponseEntity<GameResponse> tooManyMoves(long waitNanos) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, RateLimits.retryAfterSeconds(waitNanos))
+                .body(new GameResponse(false, TOO_MANY_MOVES));
+    }
+
+    private static ResponseEntity<GameResponse> notFound(RuntimeException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new GameResponse(false, e.getMessage()));
+    }
 }
@@ -0,0 +1,245 @@
+package com.example.rps.controller;
+
+import com.example.rps.dto.BatchMoveResponse;
+import com.example.rps.dto.GameResponse;
+import com.example.rps.dto.GameSnapshotResponse;
+import com.example.rps.dto.GameStartedResponse;
+import com.example.rps.dto.GameStatisticsResponse;
+import com.example.rps.dto.GlobalStatisticsResponse;
+import com.example.rps.dto.MoveRequest;
+import com.example.rps.dto.PackedGameSnapshotResponse;
+import com.example.rps.dto.RoundResponse;
+import com.example.rps.dto.SessionStatisticsResponse;
+import com.example.rps.dto.StatisticsResponse;
+import com.example.rps.exception.GameNotFoundException;
+import com.example.rps.exception.TooManyRequestsException;
+import com.example.rps.model.GameSnapshot;
+import com.example.rps.model.GameStatistics;
+import com.example.rps.model.Move;
+import com.example.rps.model.PlayedRound;
+import com.example.rps.model.PlayedRounds;
+import com.example.rps.persistence.GameJournal;
+import com.example.rps.ratelimit.RateLimits;
+import com.example.rps.service.GameService;
+import com.example.rps.service.GlobalStatisticsService;
+import com.example.rps.service.MoveService;
+import com.example.rps.service.StatisticsService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Non-blocking variant of {@link GameController} on Spring WebFlux, active with the {@value #PROFILE} profile.
+ * <p>
+ * It serves the same endpoints and responses on top of the same services. Rounds only hold a game's lock for a few
+ * microseconds, so they run directly on the event loop, unless the journal waits for each commit to reach disk
+ * ({@code rps.wal.sync-commit=true}); then calls that change game state run on the bounded elastic scheduler. It also
+ * offers a streaming batch endpoint.
+ */
+@RestController
+@RequestMapping("/game")
+@Profile(ReactiveGameController.PROFILE)
+public class ReactiveGameController {
+
+    public static final String PROFILE = "reactive";
+
+    /**
+     * Streamed moves are played in chunks of at most this size, so each chunk takes the game's lock once.
+     */
+    private static final int STREAM_CHUNK_SIZE = 256;
+
+    /**
+     * Longest a streamed move waits for its chunk to fill, so slow and interactive streams still get prompt answers.
+     */
+    private static final Duration STREAM_CHUNK_DELAY = Duration.ofMillis(10);
+
+    private final GameService gameService;
+    private final MoveService moveService;
+    private final StatisticsService statisticsService;
+    private final GlobalStatisticsService globalStatisticsService;
+    private final boolean blockingCommits;
+    private final RateLimits rateLimits;
+
+    /**
+     * @param rateLimits Present while admission control is enabled.
+     */
+    @Autowired
+    public ReactiveGameController(GameService gameService,
+                                  MoveService moveService,
+                                  StatisticsService statisticsService,
+                                  GlobalStatisticsService globalStatisticsService,
+                                  GameJournal journal,
+                                  ObjectProvider<RateLimits> rateLimits) {
+        this.gameService = gameService;
+        this.moveService = moveService;
+        this.statisticsService = statisticsService;
+        this.globalStatisticsService = globalStatisticsService;
+        this.blockingCommits = journal.blocksOnCommit();
+        this.rateLimits = rateLimits.getIfAvailable();
+    }
+
+    /**
+     * Starts a new Rock-Paper-Scissors game and returns the game ID.
+     */
+    @PostMapping("/start")
+    public Mono<GameStartedResponse> startGame() {
+        return offEventLoop(Mono.fromCallable(() -> new GameStartedResponse(true, gameService.startNewGame())));
+    }
+
+    /**
+     * Plays one round. Returns a 404 status if the game is not found or an invalid move is provided.
+     */
+    @PostMapping("/move")
+    public Mono<ResponseEntity<?>> makeMove(@RequestBody MoveRequest request) {
+        return offEventLoop(Mono.<ResponseEntity<?>>fromCallable(() -> {
+            Move userMove = moveService.convertToEnum(request.move(), Move.class);
+            PlayedRound played = gameService.playRound(request.gameId(), userMove);
+            return ResponseEntity.ok(RoundResponse.from(played.round(), played.statistics()));
+        })).onErrorResume(ReactiveGameController::isNotFound, ReactiveGameController::notFound);
+    }
+
+    /**
+     * Plays a batch of moves as consecutive rounds of one game, like {@link GameController#makeMoves}.
+     */
+    @PostMapping("/{gameId}/moves")
+    public Mono<ResponseEntity<?>> makeMoves(@PathVariable String gameId, @RequestBody List<String> moves,
+                                             @RequestAttribute(name = RateLimits.CLIENT_ATTRIBUTE, required = false) String client) {
+        if (moves.isEmpty() || moves.size() > GameController.MAX_BATCH_SIZE) {
+            String message = String.format("A batch must contain between 1 and %d moves.", GameController.MAX_BATCH_SIZE);
+            return Mono.just(ResponseEntity.badRequest().body(new GameResponse(false, message)));
+        }
+        long wait = tryAcquireRounds(client, moves.size());
+        if (wait > 0) {
+            return Mono.just(GameController.tooManyMoves(wait));
+        }
+        return offEventLoop(Mono.<ResponseEntity<?>>fromCallable(() -> {
+            List<Move> userMoves = new ArrayList<>(moves.size());
+            for (String move : moves) {
+                userMoves.add(moveService.convertToEnum(move, Move.class));
+            }
+            PlayedRounds played = gameService.playRounds(gameId, userMoves);
+            return ResponseEntity.ok(BatchMoveResponse.from(played.rounds(), played.statistics()));
+        })).onErrorResume(ReactiveGameController::isNotFound, ReactiveGameController::notFound);
+    }
+
+    /**
+     * Plays a stream of moves of unbounded length, sent as a JSON array or as newline-delimited JSON strings.
+     * Moves are played in chunks of up to {@value #STREAM_CHUNK_SIZE}, or of whatever arrived within
+     * {@code STREAM_CHUNK_DELAY}, and every round is streamed back as soon as its chunk is played, followed by the
+     * statistics right after the last chunk. Moves are only read as fast as the client consumes results, so a long game never buffers more
+     * than one chunk. Chunks are played on the thread that emits them, which is the timer thread when a chunk is cut
+     * short, or on the bounded elastic scheduler when commits block. Every chunk takes a token per move from the
+     * client's move bucket.
+     * If the game is not found, a move is invalid or the client plays too many moves, the stream ends with a
+     * {@link GameResponse} describing the error.
+     */
+    @PostMapping(value = "/{gameId}/moves/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Object> streamMoves(@PathVariable String gameId, @RequestBody Flux<String> moves,
+                                    @RequestAttribute(name = RateLimits.CLIENT_ATTRIBUTE, required = false) String client) {
+        Flux<List<Move>> chunks = moves
+                .map(move -> moveService.convertToEnum(move, Move.class))
+                // Fair backpressure: moves are still only read as fast as results are consumed.
+                .bufferTimeout(STREAM_CHUNK_SIZE, STREAM_CHUNK_DELAY, true);
+        if (blockingCommits) {
+            chunks = chunks.publishOn(Schedulers.boundedElastic(), 1);
+        }
+        // Statistics read under the game's lock with the last chunk, so they match the rounds streamed.
+        AtomicReference<GameStatistics> lastStatistics = new AtomicReference<>();
+        Flux<Object> rounds = chunks.concatMapIterable(chunk -> {
+            if (tryAcquireRounds(client, chunk.size()) > 0) {
+                throw new TooManyRequestsException(GameController.TOO_MANY_MOVES);
+            }
+            PlayedRounds played = gameService.playRounds(gameId, chunk);
+            lastStatistics.set(played.statistics());
+            return played.rounds();
+        });
+        Mono<Object> stats = Mono.fromCallable(() -> {
+            GameStatistics statistics = lastStatistics.get();
+            // An empty stream played no round; report the game as it is.
+            if (statistics == null) {
+                statistics = statisticsService.getStatisticsByGameId(gameId);
+            }
+            return new GameStatisticsResponse(true, StatisticsResponse.from(statistics));
+        });
+
+        return rounds.concatWith(stats)
+                .onErrorResume(e -> isNotFound(e) || e instanceof TooManyRequestsException,
+                        e -> Mono.just(new GameResponse(false, e.getMessage())));
+    }
+
+    @GetMapping("/stats/{gameId}")
+    public Mono<ResponseEntity<?>> getGameStatistics(@PathVariable String gameId) {
+        return Mono.<ResponseEntity<?>>fromCallable(() -> ResponseEntity.ok(
+                        new GameStatisticsResponse(true, StatisticsResponse.from(statisticsService.getStatisticsByGameId(gameId)))))
+                .onErrorResume(ReactiveGameController::isNotFound, ReactiveGameController::notFound);
+    }
+
+    @GetMapping("/stats/global")
+    public Mono<GlobalStatisticsResponse> getGlobalStatistics() {
+        return Mono.fromCallable(() -> GlobalStatisticsResponse.from(globalStatisticsService.getGlobalStatistics()));
+    }
+
+    @GetMapping("/sessions")
+    public Mono<SessionStatisticsResponse> getSessionStatistics() {
+        return Mono.fromCallable(() -> SessionStatisticsResponse.from(gameService.getSessionStatistics(), gameService.getActivity()));
+    }
+
+    @GetMapping("/{gameId}")
+    public Mono<ResponseEntity<?>> getGameDetails(@PathVariable String gameId,
+                                                  @RequestParam(required = false) String encoding) {
+        return Mono.<ResponseEntity<?>>fromCallable(() -> {
+            GameSnapshot snapshot = gameService.getGameOrThrow(gameId).snapshot();
+            if (GameController.PACKED_ENCODING.equalsIgnoreCase(encoding)) {
+                return ResponseEntity.ok(PackedGameSnapshotResponse.from(snapshot));
+            }
+            return ResponseEntity.ok(GameSnapshotResponse.from(snapshot));
+        }).onErrorResume(ReactiveGameController::isNotFound, ReactiveGameController::notFound);
+    }
+
+    @DeleteMapping("/terminate/{gameId}")
+    public Mono<ResponseEntity<?>> terminateGame(@PathVariable String gameId) {
+        return offEventLoop(Mono.<ResponseEntity<?>>fromCallable(() -> {
+            gameService.terminateGame(gameId);
+            return ResponseEntity.ok(new GameResponse(true, "Game terminated successfully."));
+        })).onErrorResume(ReactiveGameController::isNotFound, ReactiveGameController::notFound);
+    }
+
+    /**
+     * Moves a call that journals an event off the event loop if waiting for the commit can block on disk I/O.
+     */
+    private <T> Mono<T> offEventLoop(Mono<T> call) {
+        return blockingCommits ? call.subscribeOn(Schedulers.boundedElastic()) : call;
+    }
+
+    private long tryAcquireRounds(String client, int rounds) {
+        return rateLimits == null ? 0 : rateLimits.tryAcquireRounds(client, rounds);
+    }
+
+    private static boolean isNotFound(Throwable e) {
+        return e instanceof GameNotFoundException || e instanceof IllegalArgumentException;
+    }
+
+    private static Mono<ResponseEntity<?>> notFound(Throwable e) {
+        return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(new GameResponse(false, e.getMessage())));
+    }
+}
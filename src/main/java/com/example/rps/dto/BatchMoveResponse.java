@@ -0,0 +1,30 @@
+package com.example.rps.dto;
+
+import com.example.rps.model.GameResult;
+import com.example.rps.model.GameStatistics;
+import com.example.rps.model.Move;
+import com.example.rps.model.Round;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a batch of moves. Computer moves and results are listed in the order the user moves were sent.
+ */
+public record BatchMoveResponse(
+        boolean valid,
+        List<Move> computerMoves,
+        List<GameResult> results,
+        StatisticsResponse stats
+) {
+
+    public static BatchMoveResponse from(List<Round> rounds, GameStatistics stats) {
+        List<Move> computerMoves = new ArrayList<>(rounds.size());
+        List<GameResult> results = new ArrayList<>(rounds.size());
+        for (Round round : rounds) {
+            computerMoves.add(round.computerMove());
+            results.add(round.result());
+        }
+        return new BatchMoveResponse(true, computerMoves, results, StatisticsResponse.from(stats));
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.rps.dto;
+
+import com.example.rps.cluster.ClusterNode;
+
+import java.util.List;
+
+public record ClusterMembersResponse(
+        boolean valid,
+        String self,
+        List<String> members,
+        List<String> unreachable
+) {
+
+    public static ClusterMembersResponse from(ClusterNode self, List<ClusterNode> members, List<ClusterNode> unreachable) {
+        return new ClusterMembersResponse(true, self.toString(),
+                members.stream().map(ClusterNode::toString).toList(),
+                unreachable.stream().map(ClusterNode::toString).toList());
+    }
+}
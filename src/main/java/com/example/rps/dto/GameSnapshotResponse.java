@@ -0,0 +1,22 @@
+package com.example.rps.dto;
+
+import com.example.rps.model.GameResult;
+import com.example.rps.model.GameSnapshot;
+import com.example.rps.model.Move;
+
+import java.util.List;
+
+public record GameSnapshotResponse(
+        boolean valid,
+        int rounds,
+        StatisticsResponse stats,
+        List<Move> userMoves,
+        List<Move> computerMoves,
+        List<GameResult> results
+) {
+
+    public static GameSnapshotResponse from(GameSnapshot snapshot) {
+        return new GameSnapshotResponse(true, snapshot.rounds(), StatisticsResponse.from(snapshot.statistics()),
+                snapshot.userMoves(), snapshot.computerMoves(), snapshot.results());
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.rps.dto;
+
+/**
+ * Answer to starting a game: the ID to send with every later request for it.
+ */
+public record GameStartedResponse(
+        boolean valid,
+        String gameId
+) {
+}
@@ -0,0 +1,7 @@
+package com.example.rps.dto;
+
+public record GameStatisticsResponse(
+        boolean valid,
+        StatisticsResponse stats
+) {
+}
@@ -0,0 +1,25 @@
+package com.example.rps.dto;
+
+import com.example.rps.model.GlobalStatistics;
+import com.example.rps.model.Move;
+
+import java.util.List;
+import java.util.Map;
+
+public record GlobalStatisticsResponse(
+        boolean valid,
+        long rounds,
+        long wins,
+        long losses,
+        long draws,
+        double winRate,
+        Map<Move, Long> userMoves,
+        Map<Move, Long> computerMoves,
+        List<GlobalStatistics.RankedGame> topGames
+) {
+
+    public static GlobalStatisticsResponse from(GlobalStatistics stats) {
+        return new GlobalStatisticsResponse(true, stats.rounds(), stats.wins(), stats.losses(), stats.draws(),
+                stats.winRate(), stats.userMoves(), stats.computerMoves(), stats.topGames());
+    }
+}
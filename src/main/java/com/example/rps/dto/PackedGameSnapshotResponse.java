@@ -0,0 +1,26 @@
+package com.example.rps.dto;
+
+import com.example.rps.model.GameSnapshot;
+import com.example.rps.util.PackedHistoryCodec;
+
+/**
+ * Game snapshot with every history column packed by {@link PackedHistoryCodec}.
+ */
+public record PackedGameSnapshotResponse(
+        boolean valid,
+        int rounds,
+        StatisticsResponse stats,
+        String encoding,
+        String userMoves,
+        String computerMoves,
+        String results
+) {
+
+    public static PackedGameSnapshotResponse from(GameSnapshot snapshot) {
+        return new PackedGameSnapshotResponse(true, snapshot.rounds(), StatisticsResponse.from(snapshot.statistics()),
+                PackedHistoryCodec.ENCODING,
+                PackedHistoryCodec.encode(snapshot.userMoves()),
+                PackedHistoryCodec.encode(snapshot.computerMoves()),
+                PackedHistoryCodec.encode(snapshot.results()));
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.rps.dto;
+
+import com.example.rps.model.GameResult;
+import com.example.rps.model.GameStatistics;
+import com.example.rps.model.Move;
+import com.example.rps.model.Round;
+
+public record RoundResponse(
+        boolean valid,
+        Move userMove,
+        Move computerMove,
+        GameResult result,
+        StatisticsResponse stats
+) {
+
+    public static RoundResponse from(Round round, GameStatistics stats) {
+        return new RoundResponse(true, round.userMove(), round.computerMove(), round.result(),
+                StatisticsResponse.from(stats));
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.rps.dto;
+
+import com.example.rps.repository.SessionStoreStatistics;
+import com.example.rps.service.GameActivity;
+
+public record SessionStatisticsResponse(
+        boolean valid,
+        int liveSessions,
+        long expiredEvictions,
+        long capacityEvictions,
+        long estimatedBytes,
+        long gamesStarted,
+        long roundsPlayed,
+        long gamesTerminated
+) {
+
+    public static SessionStatisticsResponse from(SessionStoreStatistics stats, GameActivity activity) {
+        return new SessionStatisticsResponse(true, stats.liveSessions(),
+                stats.expiredEvictions(), stats.capacityEvictions(), stats.estimatedBytes(),
+                activity.gamesStarted(), activity.roundsPlayed(), activity.gamesTerminated());
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.rps.dto;
+
+import com.example.rps.model.GameStatistics;
+
+public record StatisticsResponse(
+        int wins,
+        int losses,
+        int draws
+) {
+
+    public static StatisticsResponse from(GameStatistics stats) {
+        return new StatisticsResponse(stats.wins(), stats.losses(), stats.draws());
+    }
+}
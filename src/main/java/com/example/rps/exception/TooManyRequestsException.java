@@ -0,0 +1,11 @@
+package com.example.rps.exception;
+
+/**
+ * Ends a stream of moves whose client exceeded its rate limit after the response had started.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.rps.export;
+
+import com.example.rps.model.GameResult;
+import com.example.rps.model.Move;
+
+/**
+ * A game read back from a dump, with its columns still packed at 2 bits per round.
+ */
+public record DumpedGame(
+        String gameId,
+        boolean terminated,
+        int rounds,
+        byte[] userMoves,
+        byte[] computerMoves,
+        byte[] results
+) {
+
+    public Move userMoveAt(int index) {
+        return Move.valueAt(unpack(userMoves, index));
+    }
+
+    public Move computerMoveAt(int index) {
+        return Move.valueAt(unpack(computerMoves, index));
+    }
+
+    public GameResult resultAt(int index) {
+        return GameResult.valueAt(unpack(results, index));
+    }
+
+    private int unpack(byte[] column, int index) {
+        if (index < 0 || index >= rounds) {
+            throw new IndexOutOfBoundsException("Round " + index + " out of bounds for length " + rounds);
+        }
+        int values = HistoryDumpWriter.VALUES_PER_BYTE;
+        return column[index / values] >>> (index % values) * 2 & 0b11;
+    }
+}
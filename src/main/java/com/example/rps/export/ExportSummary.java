@@ -0,0 +1,15 @@
+package com.example.rps.export;
+
+/**
+ * Totals of one export.
+ *
+ * @param games  Archived and live games written.
+ * @param rounds Rounds of the live games; archived games are copied as they are, without decoding them.
+ * @param bytes  Size of the dump.
+ */
+public record ExportSummary(long games, long rounds, long bytes, long nanos) {
+
+    public double megabytesPerSecond() {
+        return nanos == 0 ? 0 : bytes / (nanos / 1e9) / (1024 * 1024);
+    }
+}
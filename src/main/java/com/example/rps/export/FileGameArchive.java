@@ -0,0 +1,286 @@
+package com.example.rps.export;
+
+import com.example.rps.model.PackedHistory;
+import com.example.rps.repository.GameRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Archive of ended games in two files of dump game blocks, enabled with {@code rps.export.archive-enabled=true}.
+ * <p>
+ * Ended games are queued and written by a background thread, so a game evicted under its lock never waits for the
+ * disk or for an export; if the writer falls {@value #QUEUED_GAMES} games behind, further games are dropped. Games are
+ * appended to the current file, and each block is flushed before the next one starts, so the file always ends on a
+ * block boundary unless the process crashed mid-write; a torn block is cut off when the archive is opened. Once the
+ * current file reaches half of {@code rps.export.archive-max-size}, it replaces the previous one and a new current
+ * file is started with the next game, so the archive stays within the limit and keeps the most recent games.
+ * <p>
+ * An export opens both files and notes their sizes under the lock, then copies them without holding it, so the
+ * writer is only delayed by the open, not by the copy. Games still queued are not in the export yet.
+ */
+@Component
+@ConditionalOnProperty(name = "rps.export.archive-enabled", havingValue = "true")
+public class FileGameArchive implements GameArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(FileGameArchive.class);
+
+    static final String CURRENT_FILE = "archive-current.rpsb";
+    static final String PREVIOUS_FILE = "archive-previous.rpsb";
+
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+    private static final int QUEUED_GAMES = 10_000;
+
+    private record EndedGame(String gameId, PackedHistory history) {
+    }
+
+    /**
+     * Queued by {@link #close()} after the last game, to stop the writer.
+     */
+    private static final EndedGame STOP = new EndedGame("", new PackedHistory());
+
+    private final GameRepository games;
+    private final Path directory;
+    private final long fileBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final BlockingQueue<EndedGame> pending = new ArrayBlockingQueue<>(QUEUED_GAMES);
+    private final AtomicLong dropped = new AtomicLong();
+    private Thread writerThread;
+
+    // Guarded by lock. No current file is open between a rotation and the next game.
+    private FileChannel current;
+    private HistoryDumpWriter writer;
+    private long currentBytes;
+    private long currentGames;
+    private long previousBytes;
+    private long previousGames;
+
+    @Autowired
+    public FileGameArchive(GameRepository games,
+                           @Value("${rps.export.archive-directory:data/archive}") Path directory,
+                           @Value("${rps.export.archive-max-size:1GB}") DataSize maxSize) {
+        this(games, directory, maxSize.toBytes());
+    }
+
+    public FileGameArchive(GameRepository games, Path directory, long maxBytes) {
+        this.games = games;
+        this.directory = directory;
+        this.fileBytes = Math.max(1, maxBytes / 2);
+    }
+
+    /**
+     * Opens both files, cutting off a block torn by a crash, and starts archiving evicted games.
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        Path previous = directory.resolve(PREVIOUS_FILE);
+        if (Files.exists(previous)) {
+            try (FileChannel channel = FileChannel.open(previous, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                Scan scan = scan(channel, previous);
+                previousBytes = scan.bytes();
+                previousGames = scan.games();
+            }
+        }
+        current = FileChannel.open(directory.resolve(CURRENT_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Scan scan = scan(current, directory.resolve(CURRENT_FILE));
+        currentBytes = scan.bytes();
+        currentGames = scan.games();
+        writer = new HistoryDumpWriter(current, WRITE_BUFFER_BYTES);
+        log.info("Opened the game archive with {} games in {} bytes.",
+                previousGames + currentGames, previousBytes + currentBytes);
+
+        writerThread = new Thread(this::runWriter, "game-archive");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        games.addEvictionListener((gameId, game) -> gameEnded(gameId, game.snapshot().history()));
+    }
+
+    /**
+     * Queues the game for the writer without blocking, or drops it if the queue is full; the archive is best effort.
+     */
+    @Override
+    public void gameEnded(String gameId, PackedHistory history) {
+        if (!pending.offer(new EndedGame(gameId, history))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public long copyTo(HistoryDumpWriter target) throws IOException {
+        FileChannel previous = null;
+        FileChannel latest;
+        long previousLength;
+        long latestLength;
+        long copiedGames;
+        lock.lock();
+        try {
+            previousLength = previousBytes;
+            if (previousLength > 0) {
+                previous = FileChannel.open(directory.resolve(PREVIOUS_FILE), StandardOpenOption.READ);
+            }
+            latest = current == null ? null
+                    : FileChannel.open(directory.resolve(CURRENT_FILE), StandardOpenOption.READ);
+            latestLength = currentBytes;
+            copiedGames = previousGames + currentGames;
+        } catch (IOException e) {
+            if (previous != null) {
+                previous.close();
+            }
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+        // A rotation meanwhile renames or replaces the files, but the open channels still read the same data.
+        try (FileChannel older = previous; FileChannel newer = latest) {
+            if (older != null) {
+                target.copyBlocks(older, previousLength);
+            }
+            if (newer != null) {
+                target.copyBlocks(newer, latestLength);
+            }
+        }
+        return copiedGames;
+    }
+
+    /**
+     * Writes the games still queued and closes the current file.
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        try {
+            pending.put(STOP);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Games that ended while the writer stopped.
+        EndedGame game;
+        while ((game = pending.poll()) != null) {
+            if (game != STOP) {
+                write(game);
+            }
+        }
+        lock.lock();
+        try {
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runWriter() {
+        while (true) {
+            EndedGame game;
+            try {
+                game = pending.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (game == STOP) {
+                return;
+            }
+            write(game);
+            long lost = dropped.getAndSet(0);
+            if (lost > 0) {
+                log.warn("Dropped {} ended games because the archive fell behind.", lost);
+            }
+        }
+    }
+
+    /**
+     * Appends the game, or logs and drops it if the file cannot be written.
+     */
+    private void write(EndedGame game) {
+        lock.lock();
+        try {
+            if (current == null) {
+                openCurrent();
+            }
+            writer.writeGame(game.gameId(), HistoryDumpWriter.TERMINATED, game.history());
+            writer.flush();
+            currentBytes = current.position();
+            currentGames++;
+            if (currentBytes >= fileBytes) {
+                rotate();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to archive game with ID: {}", game.gameId(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Turns the full current file into the previous one. The file stays open until it has been moved, so a failed
+     * move leaves the archive as it was and the next game tries again. The new current file is created by the next
+     * game.
+     */
+    private void rotate() throws IOException {
+        Files.move(directory.resolve(CURRENT_FILE), directory.resolve(PREVIOUS_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        previousBytes = currentBytes;
+        previousGames = currentGames;
+        FileChannel full = current;
+        current = null;
+        writer = null;
+        currentBytes = 0;
+        currentGames = 0;
+        full.close();
+    }
+
+    private void openCurrent() throws IOException {
+        current = FileChannel.open(directory.resolve(CURRENT_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        writer = new HistoryDumpWriter(current, WRITE_BUFFER_BYTES);
+    }
+
+    /**
+     * Counts the complete blocks of a file, truncates anything after them, and leaves the channel at the end.
+     */
+    private static Scan scan(FileChannel channel, Path file) throws IOException {
+        long size = channel.size();
+        HistoryDumpReader reader = new HistoryDumpReader(channel, WRITE_BUFFER_BYTES);
+        long games = 0;
+        long valid = 0;
+        try {
+            while (valid < size && reader.next() != null) {
+                games++;
+                valid = reader.bytesRead();
+            }
+        } catch (IOException e) {
+            // A torn or corrupt block; everything from it on is dropped below.
+        }
+        if (valid < size) {
+            log.warn("Dropping {} bytes after the last complete game in {}.", size - valid, file);
+            channel.truncate(valid);
+        }
+        channel.position(valid);
+        return new Scan(games, valid);
+    }
+
+    private record Scan(long games, long bytes) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.rps.export;
+
+import com.example.rps.model.PackedHistory;
+
+import java.io.IOException;
+
+/**
+ * Keeps the histories of games that ended, so an export can include them after they left the repository.
+ */
+public interface GameArchive {
+
+    /**
+     * Records a game that was terminated or evicted. Called once the game is closed, so its history no longer changes.
+     */
+    void gameEnded(String gameId, PackedHistory history);
+
+    /**
+     * Appends the archived games to a dump as game blocks.
+     *
+     * @return Number of games copied.
+     */
+    long copyTo(HistoryDumpWriter writer) throws IOException;
+}
@@ -0,0 +1,111 @@
+package com.example.rps.export;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads a dump written by {@link HistoryDumpWriter} one game at a time, through a fixed buffer refilled from the
+ * channel, so only the game being read is held in memory.
+ */
+public class HistoryDumpReader {
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    private long bytesRead;
+
+    public HistoryDumpReader(ReadableByteChannel channel) {
+        this(channel, HistoryDumpWriter.DEFAULT_BUFFER_BYTES);
+    }
+
+    public HistoryDumpReader(ReadableByteChannel channel, int bufferBytes) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferBytes);
+        buffer.flip();
+    }
+
+    /**
+     * Checks the header; call once before reading the games.
+     */
+    public void readHeader() throws IOException {
+        require(Integer.BYTES + Short.BYTES);
+        int magic = buffer.getInt();
+        short version = buffer.getShort();
+        if (magic != HistoryDumpWriter.MAGIC) {
+            throw new IOException("Not a game history dump.");
+        }
+        if (version != HistoryDumpWriter.VERSION) {
+            throw new IOException("Unsupported dump version: " + version);
+        }
+    }
+
+    /**
+     * @return The next game, or {@code null} at the end of the dump.
+     * @throws EOFException If the dump is truncated.
+     */
+    public DumpedGame next() throws IOException {
+        require(1);
+        byte block = buffer.get();
+        if (block == HistoryDumpWriter.END) {
+            return null;
+        }
+        if (block != HistoryDumpWriter.GAME_BLOCK) {
+            throw new IOException("Invalid block type: " + block);
+        }
+        require(Short.BYTES);
+        byte[] id = new byte[buffer.getShort() & 0xFFFF];
+        readFully(id);
+        require(1 + Integer.BYTES);
+        boolean terminated = buffer.get() == HistoryDumpWriter.TERMINATED;
+        int rounds = buffer.getInt();
+        if (rounds < 0) {
+            throw new IOException("Invalid round count: " + rounds);
+        }
+        int columnBytes = (rounds + HistoryDumpWriter.VALUES_PER_BYTE - 1) / HistoryDumpWriter.VALUES_PER_BYTE;
+        byte[] userMoves = new byte[columnBytes];
+        byte[] computerMoves = new byte[columnBytes];
+        byte[] results = new byte[columnBytes];
+        readFully(userMoves);
+        readFully(computerMoves);
+        readFully(results);
+        return new DumpedGame(new String(id, StandardCharsets.UTF_8), terminated, rounds,
+                userMoves, computerMoves, results);
+    }
+
+    public long bytesRead() {
+        return bytesRead - buffer.remaining();
+    }
+
+    private void readFully(byte[] target) throws IOException {
+        int offset = 0;
+        while (offset < target.length) {
+            if (!buffer.hasRemaining()) {
+                require(1);
+            }
+            int length = Math.min(buffer.remaining(), target.length - offset);
+            buffer.get(target, offset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * Refills the buffer until it holds at least the given number of bytes.
+     */
+    private void require(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            int read = channel.read(buffer);
+            if (read < 0) {
+                throw new EOFException("Dump ends in the middle of a block.");
+            }
+            bytesRead += read;
+        }
+        buffer.flip();
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.rps.export;
+
+import com.example.rps.model.PackedHistory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes game histories in the columnar dump format, through a fixed buffer that is flushed to the channel whenever
+ * it fills, so memory stays bounded however many rounds are written.
+ * <p>
+ * A dump is a header ({@value #MAGIC} as an int, then a short version), any number of game blocks, and an end byte.
+ * A game block is the block byte, the UTF-8 game ID prefixed by its length as a short, the status byte, the round
+ * count as an int, and then three columns: user moves, computer moves and results for the user. A column packs 2 bits
+ * per round, four rounds per byte, like {@link com.example.rps.util.PackedHistoryCodec}. All numbers are big-endian.
+ */
+public class HistoryDumpWriter {
+
+    public static final int MAGIC = 0x52505358;
+    public static final short VERSION = 1;
+
+    public static final byte END = 0;
+    public static final byte GAME_BLOCK = 1;
+
+    public static final byte LIVE = 0;
+    public static final byte TERMINATED = 1;
+
+    public static final int DEFAULT_BUFFER_BYTES = 256 * 1024;
+
+    static final int VALUES_PER_BYTE = 4;
+
+    private static final int USER_MOVES = 0;
+    private static final int COMPUTER_MOVES = 1;
+    private static final int RESULTS = 2;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    private long bytesWritten;
+    private long games;
+    private long rounds;
+
+    public HistoryDumpWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_BYTES);
+    }
+
+    public HistoryDumpWriter(WritableByteChannel channel, int bufferBytes) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferBytes);
+    }
+
+    public void writeHeader() throws IOException {
+        ensure(Integer.BYTES + Short.BYTES);
+        buffer.putInt(MAGIC).putShort(VERSION);
+    }
+
+    /**
+     * @param status {@link #LIVE} or {@link #TERMINATED}.
+     */
+    public void writeGame(String gameId, byte status, PackedHistory history) throws IOException {
+        byte[] id = gameId.getBytes(StandardCharsets.UTF_8);
+        int count = history.size();
+        ensure(1 + Short.BYTES + id.length + 1 + Integer.BYTES);
+        buffer.put(GAME_BLOCK).putShort((short) id.length).put(id).put(status).putInt(count);
+
+        writeColumn(history, USER_MOVES);
+        writeColumn(history, COMPUTER_MOVES);
+        writeColumn(history, RESULTS);
+        games++;
+        rounds += count;
+    }
+
+    private void writeColumn(PackedHistory history, int column) throws IOException {
+        int count = history.size();
+        for (int i = 0; i < count; i += VALUES_PER_BYTE) {
+            ensure(1);
+            int packed = 0;
+            for (int j = 0, end = Math.min(VALUES_PER_BYTE, count - i); j < end; j++) {
+                int ordinal = switch (column) {
+                    case USER_MOVES -> history.userMoveAt(i + j).ordinal();
+                    case COMPUTER_MOVES -> history.computerMoveAt(i + j).ordinal();
+                    default -> history.resultAt(i + j).ordinal();
+                };
+                packed |= ordinal << j * 2;
+            }
+            buffer.put((byte) packed);
+        }
+    }
+
+    /**
+     * Copies game blocks written earlier to a file, such as the archive of terminated games, without passing them
+     * through the heap.
+     *
+     * @param length Number of bytes to copy from the start of the file; must end on a block boundary.
+     */
+    public void copyBlocks(FileChannel source, long length) throws IOException {
+        flush();
+        long position = 0;
+        while (position < length) {
+            long copied = source.transferTo(position, length - position, channel);
+            if (copied <= 0) {
+                throw new IOException("Could not copy archived games at offset " + position);
+            }
+            position += copied;
+        }
+        bytesWritten += length;
+    }
+
+    /**
+     * Writes the end byte and flushes the buffer.
+     */
+    public void finish() throws IOException {
+        ensure(1);
+        buffer.put(END);
+        flush();
+    }
+
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    public long bytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * @return Games written with {@link #writeGame}, not counting copied blocks.
+     */
+    public long games() {
+        return games;
+    }
+
+    public long rounds() {
+        return rounds;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+            if (buffer.remaining() < bytes) {
+                throw new IllegalArgumentException("Buffer too small for " + bytes + " bytes.");
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.rps.export;
+
+import com.example.rps.repository.GameRepository;
+import com.example.rps.util.GameIds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Streams every archived and live game to a channel as one dump.
+ * <p>
+ * Games are written one at a time through the writer's fixed buffer, and each live game is copied under its lock
+ * only for as long as the copy takes, so an export needs memory for one game at most and never blocks play on
+ * the whole store. The live games are a weakly consistent view, like {@link GameRepository#forEach}. Live games are
+ * named by their {@link GameIds#handle handle}, since their IDs would let the reader of a dump play them; ended games
+ * keep their IDs.
+ */
+@Service
+public class HistoryExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryExportService.class);
+
+    private final GameRepository games;
+    private final GameArchive archive;
+
+    public HistoryExportService(GameRepository games, GameArchive archive) {
+        this.games = games;
+        this.archive = archive;
+    }
+
+    public ExportSummary export(WritableByteChannel channel) throws IOException {
+        long start = System.nanoTime();
+        HistoryDumpWriter writer = new HistoryDumpWriter(channel);
+        writer.writeHeader();
+        long archived = archive.copyTo(writer);
+        try {
+            games.forEach((gameId, game) -> {
+                try {
+                    writer.writeGame(GameIds.handle(gameId), HistoryDumpWriter.LIVE, game.snapshot().history());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+
+        ExportSummary summary = new ExportSummary(archived + writer.games(), writer.rounds(),
+                writer.bytesWritten(), System.nanoTime() - start);
+        log.info("Exported {} live and {} archived games ({} live rounds, {} bytes) in {} ms at {} MB/s.",
+                writer.games(), archived, summary.rounds(), summary.bytes(), summary.nanos() / 1_000_000,
+                String.format("%.1f", summary.megabytesPerSecond()));
+        return summary;
+    }
+}
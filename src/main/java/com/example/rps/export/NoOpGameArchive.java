@@ -0,0 +1,22 @@
+package com.example.rps.export;
+
+import com.example.rps.model.PackedHistory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Archive used while {@code rps.export.archive-enabled} is off; exports contain only live games.
+ */
+@Component
+@ConditionalOnProperty(name = "rps.export.archive-enabled", havingValue = "false", matchIfMissing = true)
+public class NoOpGameArchive implements GameArchive {
+
+    @Override
+    public void gameEnded(String gameId, PackedHistory history) {
+    }
+
+    @Override
+    public long copyTo(HistoryDumpWriter writer) {
+        return 0;
+    }
+}
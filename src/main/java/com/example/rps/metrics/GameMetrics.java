@@ -0,0 +1,133 @@
+package com.example.rps.metrics;
+
+import com.example.rps.model.GameResult;
+import com.example.rps.model.Move;
+import com.example.rps.repository.GameRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters of the game service, exported at {@code /actuator/prometheus}.
+ * <p>
+ * Every meter is registered up front and held in a field or an array indexed by ordinal, so recording never looks up
+ * a meter or builds tags. Callers time with {@link System#nanoTime()} rather than {@link Timer.Sample}, so the hot
+ * path allocates nothing.
+ */
+@Component
+public class GameMetrics {
+
+    private static final Duration MIN_EXPECTED_LATENCY = Duration.ofNanos(100);
+    private static final Duration MAX_EXPECTED_LATENCY = Duration.ofSeconds(5);
+
+    private final Timer startTimer;
+    private final Timer roundTimer;
+    private final Timer lookupTimer;
+    private final Timer terminateTimer;
+    private final Timer predictionTimer;
+
+    private final Counter[] resultCounters;
+    private final Counter predictionHits;
+    private final Counter predictionMisses;
+
+    public GameMetrics(MeterRegistry registry, GameRepository games) {
+        this.startTimer = operationTimer(registry, "start");
+        this.roundTimer = operationTimer(registry, "round");
+        this.lookupTimer = operationTimer(registry, "lookup");
+        this.terminateTimer = operationTimer(registry, "terminate");
+        this.predictionTimer = Timer.builder("rps.prediction")
+                .description("Time to predict the user's next move")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED_LATENCY)
+                .maximumExpectedValue(MAX_EXPECTED_LATENCY)
+                .register(registry);
+
+        GameResult[] results = GameResult.values();
+        this.resultCounters = new Counter[results.length];
+        for (GameResult result : results) {
+            resultCounters[result.ordinal()] = Counter.builder("rps.rounds")
+                    .description("Rounds played, by result for the user")
+                    .tag("result", result.name())
+                    .register(registry);
+        }
+        this.predictionHits = predictionCounter(registry, "hit");
+        this.predictionMisses = predictionCounter(registry, "miss");
+
+        Gauge.builder("rps.sessions.live", games, GameRepository::count)
+                .description("Live game sessions")
+                .register(registry);
+        Gauge.builder("rps.sessions.memory", games, repository -> repository.getStatistics().estimatedBytes())
+                .description("Estimated heap held by live games, as of the last sweep")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+        FunctionCounter.builder("rps.sessions.evictions", games, repository -> repository.getStatistics().expiredEvictions())
+                .description("Game sessions evicted by the session store")
+                .tag("reason", "expired")
+                .register(registry);
+        FunctionCounter.builder("rps.sessions.evictions", games, repository -> repository.getStatistics().capacityEvictions())
+                .description("Game sessions evicted by the session store")
+                .tag("reason", "capacity")
+                .register(registry);
+    }
+
+    public void recordStart(long nanos) {
+        startTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a single round or a whole batch, measured from the lookup to the response.
+     */
+    public void recordRoundTime(long nanos) {
+        roundTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLookup(long nanos) {
+        lookupTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTerminate(long nanos) {
+        terminateTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPrediction(long nanos) {
+        predictionTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts the result of a round and whether the predictor foresaw the user's move.
+     *
+     * @param predictedMove The move the predictor expected, or {@code null} if it had no prediction yet.
+     */
+    public void recordRound(Move userMove, Move predictedMove, GameResult result) {
+        resultCounters[result.ordinal()].increment();
+        if (predictedMove == userMove) {
+            predictionHits.increment();
+        } else if (predictedMove != null) {
+            predictionMisses.increment();
+        }
+    }
+
+    private static Timer operationTimer(MeterRegistry registry, String operation) {
+        return Timer.builder("rps.game.operations")
+                .description("Latency of game operations")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED_LATENCY)
+                .maximumExpectedValue(MAX_EXPECTED_LATENCY)
+                .register(registry);
+    }
+
+    private static Counter predictionCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("rps.predictions")
+                .description("Predictions of the user's next move, by whether the user played it")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
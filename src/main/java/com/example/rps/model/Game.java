@@ -1,99 +1,185 @@
 package com.example.rps.model;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.EnumMap;
+import com.example.rps.util.MovePredictor;
+import com.example.rps.util.PredictionStrategy;
+
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * A game session: its round history, running counters and move predictor.
+ * <p>
+ * Games are entities, so equality is identity; comparing two histories would mean walking both of them.
+ */
 public class Game {
 
-    private final List<Move> userMoves;
-    private final List<Move> computerMoves;
-    private final List<GameResult> results;
+    /**
+     * Rough size of a game without its history: the object, counters, lock and registry entry.
+     */
+    private static final long BASE_BYTES = 320;
+
+    /**
+     * Accesses closer together than this do not update {@link #lastAccessed}, so hot games do not write a shared
+     * field on every lookup.
+     */
+    private static final long TOUCH_RESOLUTION_NANOS = 1_000_000L;
+
+    private final PackedHistory history;
+
+    private final int[] userMoveCounts;
+    private final int[] computerMoveCounts;
+    private final int[] resultCounts;
 
-    private final Map<Move, Integer> userMoveCounts;
-    private final Map<Move, Integer> computerMoveCounts;
-    private final Map<GameResult, Integer> resultCounts;
+    private final PredictionStrategy predictor;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile long lastAccessed;
+    private boolean closed;
 
     public Game() {
-        this.userMoves = new ArrayList<>();
-        this.computerMoves = new ArrayList<>();
-        this.results = new ArrayList<>();
+        this(new MovePredictor());
+    }
+
+    public Game(PredictionStrategy predictor) {
+        this.predictor = predictor;
+        this.history = new PackedHistory();
+
+        this.userMoveCounts = new int[Move.COUNT];
+        this.computerMoveCounts = new int[Move.COUNT];
+        this.resultCounts = new int[GameResult.values().length];
+    }
 
-        this.userMoveCounts = initializeMoveCounts();
-        this.computerMoveCounts = initializeMoveCounts();
-        this.resultCounts = initializeResultCounts();
+    /**
+     * Rebuilds a game from its history, replaying the rounds into the counters and the predictor.
+     */
+    public static Game restore(PredictionStrategy predictor, PackedHistory history) {
+        Game game = new Game(predictor);
+        for (int i = 0; i < history.size(); i++) {
+            game.addMove(history.userMoveAt(i), history.computerMoveAt(i), history.resultAt(i));
+        }
+        return game;
     }
 
     public void addMove(Move userMove, Move computerMove, GameResult result) {
-        userMoves.add(userMove);
-        computerMoves.add(computerMove);
-        results.add(result);
+        history.add(userMove, computerMove, result);
+
+        userMoveCounts[userMove.ordinal()]++;
+        computerMoveCounts[computerMove.ordinal()]++;
+        resultCounts[result.ordinal()]++;
+        predictor.recordRound(userMove, computerMove, result);
+    }
+
+    public int getRoundCount() {
+        return history.size();
+    }
 
-        updateMoveCounts(userMove, computerMove);
-        updateResultCounts(result);
+    /**
+     * Read-only view of the user's moves. Use {@link #snapshot()} for a copy that is safe to read concurrently.
+     */
+    public List<Move> getUserMoves() {
+        return history.userMoves();
     }
 
     public List<Move> getComputerMoves() {
-        return Collections.unmodifiableList(computerMoves);
+        return history.computerMoves();
     }
 
-    private void updateMoveCounts(Move userMove, Move computerMove) {
-        userMoveCounts.put(userMove, userMoveCounts.get(userMove) + 1);
-        computerMoveCounts.put(computerMove, computerMoveCounts.get(computerMove) + 1);
+    public List<GameResult> getResults() {
+        return history.results();
     }
 
-    private void updateResultCounts(GameResult result) {
-        resultCounts.put(result, resultCounts.get(result) + 1);
+    public int getUserMoveCount(Move move) {
+        return userMoveCounts[move.ordinal()];
     }
 
-    private Map<Move, Integer> initializeMoveCounts() {
-        return Stream.of(Move.values())
-                .collect(Collectors.toMap(
-                        Function.identity(),
-                        move -> 0,
-                        (existing, replacement) -> existing,
-                        () -> new EnumMap<>(Move.class)
-                ));
+    public int getComputerMoveCount(Move move) {
+        return computerMoveCounts[move.ordinal()];
     }
 
-    private Map<GameResult, Integer> initializeResultCounts() {
-        return Stream.of(GameResult.values())
-                .collect(Collectors.toMap(
-                        Function.identity(),
-                        result -> 0,
-                        (existing, replacement) -> existing,
-                        () -> new EnumMap<>(GameResult.class)
-                ));
+    public int getResultCount(GameResult result) {
+        return resultCounts[result.ordinal()];
     }
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Game game = (Game) o;
-        return Objects.equals(userMoves, game.userMoves)
-                && Objects.equals(computerMoves, game.computerMoves)
-                && Objects.equals(results, game.results)
-                && Objects.equals(userMoveCounts, game.userMoveCounts)
-                && Objects.equals(computerMoveCounts, game.computerMoveCounts)
-                && Objects.equals(resultCounts, game.resultCounts);
+    /**
+     * Copies the result counters under the game's lock, so they always add up to the number of rounds.
+     */
+    public GameStatistics getStatistics() {
+        lock.lock();
+        try {
+            return currentStatistics();
+        } finally {
+            lock.unlock();
+        }
     }
 
-    @Override
-    public int hashCode() {
-        return Objects.hash(userMoves, computerMoves, results, userMoveCounts, computerMoveCounts, resultCounts);
+    /**
+     * Copies the history and counters under the game's lock, so the columns and counters always agree.
+     */
+    public GameSnapshot snapshot() {
+        lock.lock();
+        try {
+            return new GameSnapshot(history.copy(), currentStatistics());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Approximate heap footprint of this game, including its history and predictor.
+     */
+    public long estimatedBytes() {
+        return BASE_BYTES + history.estimatedBytes() + predictor.estimatedBytes();
+    }
+
+    /**
+     * Records an access at the given {@link System#nanoTime()}-style timestamp.
+     */
+    public void touch(long now) {
+        long elapsed = now - lastAccessed;
+        if (elapsed >= TOUCH_RESOLUTION_NANOS || elapsed < 0) {
+            lastAccessed = now;
+        }
+    }
+
+    public long getLastAccessed() {
+        return lastAccessed;
+    }
+
+    /**
+     * Marks the game as terminated or evicted. Must be called with the game's lock held.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * @return Whether the game was terminated or evicted. Must be called with the game's lock held.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public PredictionStrategy getPredictor() {
+        return predictor;
+    }
+
+    /**
+     * Lock serializing rounds of this game. Rounds of different games never share a lock.
+     */
+    public ReentrantLock getLock() {
+        return lock;
+    }
+
+    private GameStatistics currentStatistics() {
+        return new GameStatistics(resultCounts[GameResult.WIN.ordinal()],
+                resultCounts[GameResult.LOSE.ordinal()],
+                resultCounts[GameResult.DRAW.ordinal()]);
     }
 
     @Override
     public String toString() {
-        return "userMoves=" + userMoves +
-                ", computerMoves=" + computerMoves +
-                ", results=" + results;
+        return "userMoves=" + getUserMoves() +
+                ", computerMoves=" + getComputerMoves() +
+                ", results=" + getResults();
     }
 }
@@ -1,5 +1,28 @@
 package com.example.rps.model;
 
 public enum GameResult {
-    WIN, LOSE, DRAW
-}
\ No newline at end of file
+    WIN, LOSE, DRAW;
+
+    private static final GameResult[] VALUES = values();
+
+    /**
+     * Outcome for the user, indexed by {@code userMove.ordinal() * Move.COUNT + computerMove.ordinal()}.
+     */
+    private static final GameResult[] OUTCOMES = {
+            // computer: ROCK, PAPER, SCISSORS
+            DRAW, LOSE, WIN,  // user: ROCK
+            WIN, DRAW, LOSE,  // user: PAPER
+            LOSE, WIN, DRAW   // user: SCISSORS
+    };
+
+    /**
+     * Returns the result with the given ordinal without cloning {@link #values()}.
+     */
+    public static GameResult valueAt(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    public static GameResult of(Move userMove, Move computerMove) {
+        return OUTCOMES[userMove.ordinal() * Move.COUNT + computerMove.ordinal()];
+    }
+}
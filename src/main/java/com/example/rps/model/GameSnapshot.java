@@ -0,0 +1,28 @@
+package com.example.rps.model;
+
+import java.util.List;
+
+/**
+ * Consistent copy of a game's history, taken while no round is in progress.
+ */
+public record GameSnapshot(
+        PackedHistory history,
+        GameStatistics statistics
+) {
+
+    public int rounds() {
+        return history.size();
+    }
+
+    public List<Move> userMoves() {
+        return history.userMoves();
+    }
+
+    public List<Move> computerMoves() {
+        return history.computerMoves();
+    }
+
+    public List<GameResult> results() {
+        return history.results();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.rps.model;
+
+/**
+ * Immutable copy of a game's result counters.
+ */
+public record GameStatistics(
+        int wins,
+        int losses,
+        int draws
+) {
+}
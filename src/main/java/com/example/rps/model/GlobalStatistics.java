@@ -0,0 +1,40 @@
+package com.example.rps.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates over every round played since startup, including games that have since ended.
+ *
+ * @param rounds        Rounds played.
+ * @param wins          Rounds the user won.
+ * @param losses        Rounds the user lost.
+ * @param draws         Rounds drawn.
+ * @param userMoves     How often the users played each move.
+ * @param computerMoves How often the computer played each move.
+ * @param topGames      Live games with the highest user win rate, best first.
+ */
+public record GlobalStatistics(
+        long rounds,
+        long wins,
+        long losses,
+        long draws,
+        Map<Move, Long> userMoves,
+        Map<Move, Long> computerMoves,
+        List<RankedGame> topGames
+) {
+
+    public double winRate() {
+        return rounds == 0 ? 0 : (double) wins / rounds;
+    }
+
+    /**
+     * A game on the leaderboard. Game IDs grant access to their games, so a game is only named by its
+     * {@link com.example.rps.util.GameIds#handle handle}.
+     *
+     * @param rank   One-based position on the leaderboard.
+     * @param handle Opaque name of the game.
+     */
+    public record RankedGame(int rank, String handle, int rounds, int wins, double winRate) {
+    }
+}
@@ -3,9 +3,45 @@ package com.example.rps.model;
 public enum Move {
     ROCK, PAPER, SCISSORS;
 
+    private static final Move[] VALUES = values();
+
+    public static final int COUNT = VALUES.length;
+
+    /**
+     * Returns the move with the given ordinal without cloning {@link #values()}.
+     */
+    public static Move valueAt(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Case-insensitive lookup by name that neither allocates nor throws.
+     *
+     * @param value The move name, e.g. "rock" or "ROCK".
+     * @return The matching move, or {@code null} if the value does not name a move.
+     */
+    public static Move parse(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        Move candidate = switch (value.charAt(0)) {
+            case 'R', 'r' -> ROCK;
+            case 'P', 'p' -> PAPER;
+            case 'S', 's' -> SCISSORS;
+            default -> null;
+        };
+        return candidate != null && candidate.name().equalsIgnoreCase(value) ? candidate : null;
+    }
+
     public boolean beats(Move other) {
-        return (this == ROCK && other == SCISSORS) ||
-               (this == PAPER && other == ROCK) ||
-               (this == SCISSORS && other == PAPER);
+        return GameResult.of(this, other) == GameResult.WIN;
+    }
+
+    /**
+     * @return The move that beats this one.
+     */
+    public Move counter() {
+        // Every move is beaten by the one declared after it, wrapping around.
+        return VALUES[(ordinal() + 1) % COUNT];
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,155 @@
+package com.example.rps.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+
+/**
+ * Append-only round history packed into a growable {@code long[]}.
+ * <p>
+ * A round takes 6 bits: the user move ordinal in bits 0-1, the computer move in bits 2-3 and the result in bits 4-5.
+ * Ten rounds share one {@code long}, so a million rounds take about 800 KB.
+ * Not thread-safe; writers and readers that need a stable view must hold the owning game's lock.
+ */
+public class PackedHistory {
+
+    private static final int BITS_PER_ROUND = 6;
+    private static final int ROUNDS_PER_WORD = Long.SIZE / BITS_PER_ROUND;
+    private static final int INITIAL_WORDS = 4;
+
+    private static final int USER_MOVE_SHIFT = 0;
+    private static final int COMPUTER_MOVE_SHIFT = 2;
+    private static final int RESULT_SHIFT = 4;
+
+    private long[] words;
+    private int size;
+
+    public PackedHistory() {
+        this.words = new long[INITIAL_WORDS];
+    }
+
+    private PackedHistory(long[] words, int size) {
+        this.words = words;
+        this.size = size;
+    }
+
+    public void add(Move userMove, Move computerMove, GameResult result) {
+        int word = size / ROUNDS_PER_WORD;
+        if (word == words.length) {
+            words = Arrays.copyOf(words, Math.max(INITIAL_WORDS, words.length + (words.length >> 1)));
+        }
+        long round = userMove.ordinal() << USER_MOVE_SHIFT
+                | computerMove.ordinal() << COMPUTER_MOVE_SHIFT
+                | result.ordinal() << RESULT_SHIFT;
+        words[word] |= round << (size % ROUNDS_PER_WORD) * BITS_PER_ROUND;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Move userMoveAt(int index) {
+        return Move.valueAt(field(index, USER_MOVE_SHIFT));
+    }
+
+    public Move computerMoveAt(int index) {
+        return Move.valueAt(field(index, COMPUTER_MOVE_SHIFT));
+    }
+
+    public GameResult resultAt(int index) {
+        return GameResult.valueAt(field(index, RESULT_SHIFT));
+    }
+
+    /**
+     * Read-only view of the user moves. It reflects later rounds, so copy the history first if it must not change.
+     */
+    public List<Move> userMoves() {
+        return new Column<>(this, USER_MOVE_SHIFT, Move::valueAt);
+    }
+
+    public List<Move> computerMoves() {
+        return new Column<>(this, COMPUTER_MOVE_SHIFT, Move::valueAt);
+    }
+
+    public List<GameResult> results() {
+        return new Column<>(this, RESULT_SHIFT, GameResult::valueAt);
+    }
+
+    public PackedHistory copy() {
+        return new PackedHistory(Arrays.copyOf(words, wordsFor(size)), size);
+    }
+
+    /**
+     * Writes the number of rounds followed by the packed words in use.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0, used = wordsFor(size); i < used; i++) {
+            out.writeLong(words[i]);
+        }
+    }
+
+    /**
+     * Reads a history written by {@link #writeTo(DataOutput)}.
+     */
+    public static PackedHistory readFrom(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("Invalid round count: " + size);
+        }
+        int used = wordsFor(size);
+        long[] words = new long[Math.max(INITIAL_WORDS, used)];
+        for (int i = 0; i < used; i++) {
+            words[i] = in.readLong();
+        }
+        return new PackedHistory(words, size);
+    }
+
+    /**
+     * @return Approximate heap footprint of the packed words, including the array header.
+     */
+    public long estimatedBytes() {
+        return 16L + (long) words.length * Long.BYTES;
+    }
+
+    private static int wordsFor(int rounds) {
+        return (rounds + ROUNDS_PER_WORD - 1) / ROUNDS_PER_WORD;
+    }
+
+    private int field(int index, int shift) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Round " + index + " out of bounds for length " + size);
+        }
+        long word = words[index / ROUNDS_PER_WORD];
+        return (int) (word >>> (index % ROUNDS_PER_WORD) * BITS_PER_ROUND + shift) & 0b11;
+    }
+
+    private static final class Column<E> extends AbstractList<E> implements RandomAccess {
+
+        private final PackedHistory history;
+        private final int shift;
+        private final IntFunction<E> decoder;
+
+        private Column(PackedHistory history, int shift, IntFunction<E> decoder) {
+            this.history = history;
+            this.shift = shift;
+            this.decoder = decoder;
+        }
+
+        @Override
+        public E get(int index) {
+            return decoder.apply(history.field(index, shift));
+        }
+
+        @Override
+        public int size() {
+            return history.size;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.rps.model;
+
+/**
+ * A round together with the game's counters right after it, taken under the game's lock.
+ */
+public record PlayedRound(
+        Round round,
+        GameStatistics statistics
+) {
+}
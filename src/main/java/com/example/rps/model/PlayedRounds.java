@@ -0,0 +1,12 @@
+package com.example.rps.model;
+
+import java.util.List;
+
+/**
+ * The rounds of a batch together with the game's counters right after the last of them, taken under the game's lock.
+ */
+public record PlayedRounds(
+        List<Round> rounds,
+        GameStatistics statistics
+) {
+}
@@ -0,0 +1,8 @@
+package com.example.rps.model;
+
+public record Round(
+        Move userMove,
+        Move computerMove,
+        GameResult result
+) {
+}
@@ -0,0 +1,202 @@
+package com.example.rps.persistence;
+
+import com.example.rps.model.Game;
+import com.example.rps.model.GameResult;
+import com.example.rps.model.Move;
+import com.example.rps.model.PackedHistory;
+import com.example.rps.model.Round;
+import com.example.rps.repository.GameRepository;
+import com.example.rps.util.GameIds;
+import com.example.rps.util.PredictionStrategyFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Journal that makes game sessions survive a restart, enabled with {@code rps.wal.enabled=true}.
+ * <p>
+ * Every event is appended to a {@link WriteAheadLog}. Periodic snapshots of all live games let the log be
+ * truncated, and on startup the sessions are rebuilt from the latest snapshot plus the log written after it.
+ * Round records carry their index within the game, so replay skips rounds a snapshot already contains.
+ * <p>
+ * With {@code rps.wal.sync-commit=true}, a request returns only once its rounds are on disk, which adds about one
+ * fsync of latency. Otherwise a crash can lose the rounds of the last flush interval.
+ */
+@Component
+@ConditionalOnProperty(name = "rps.wal.enabled", havingValue = "true")
+public class DurableGameJournal implements GameJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(DurableGameJournal.class);
+
+    private final GameRepository games;
+    private final PredictionStrategyFactory predictionStrategyFactory;
+    private final Path directory;
+    private final long segmentBytes;
+    private final Duration flushInterval;
+    private final boolean syncCommit;
+    private final SnapshotStore snapshots;
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    private volatile WriteAheadLog wal;
+    private long snapshotPosition = -1;
+
+    @Autowired
+    public DurableGameJournal(GameRepository games,
+                              PredictionStrategyFactory predictionStrategyFactory,
+                              @Value("${rps.wal.directory:data/wal}") Path directory,
+                              @Value("${rps.wal.segment-size:64MB}") DataSize segmentSize,
+                              @Value("${rps.wal.flush-interval:5ms}") Duration flushInterval,
+                              @Value("${rps.wal.sync-commit:true}") boolean syncCommit) {
+        this(games, predictionStrategyFactory, directory, segmentSize.toBytes(), flushInterval, syncCommit);
+    }
+
+    public DurableGameJournal(GameRepository games,
+                              PredictionStrategyFactory predictionStrategyFactory,
+                              Path directory,
+                              long segmentBytes,
+                              Duration flushInterval,
+                              boolean syncCommit) {
+        this.games = games;
+        this.predictionStrategyFactory = predictionStrategyFactory;
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.flushInterval = flushInterval;
+        this.syncCommit = syncCommit;
+        this.snapshots = new SnapshotStore(directory);
+    }
+
+    /**
+     * Rebuilds the sessions from the latest snapshot and the log after it, then opens the log and compacts it into a
+     * fresh snapshot. Runs before any request can reach the repository.
+     */
+    @PostConstruct
+    public void recover() throws IOException {
+        long start = System.nanoTime();
+        Map<Long, Game> recovered = new HashMap<>();
+
+        // Game IDs take the low half of the 128-bit ID field; the high half is always zero.
+        long firstSegment = snapshots.load((idHigh, idLow, history) ->
+                recovered.put(idLow, Game.restore(predictionStrategyFactory.create(), history)));
+        long records = WriteAheadLog.replay(directory, firstSegment, (type, idHigh, gameId, roundIndex, round) -> {
+            switch (type) {
+                case WriteAheadLog.GAME_STARTED -> recovered.putIfAbsent(gameId, new Game(predictionStrategyFactory.create()));
+                case WriteAheadLog.ROUND_PLAYED -> {
+                    Game game = recovered.get(gameId);
+                    if (game != null && game.getRoundCount() == roundIndex) {
+                        game.addMove(Move.valueAt(round & 0b11), Move.valueAt(round >>> 2 & 0b11),
+                                GameResult.valueAt(round >>> 4 & 0b11));
+                    }
+                }
+                case WriteAheadLog.GAME_ENDED -> recovered.remove(gameId);
+                default -> throw new IllegalStateException("Unknown record type: " + type);
+            }
+        });
+
+        wal = new WriteAheadLog(directory, segmentBytes, flushInterval);
+        games.addEvictionListener((gameId, game) -> gameEnded(gameId));
+        long rounds = 0;
+        for (Map.Entry<Long, Game> entry : recovered.entrySet()) {
+            games.save(GameIds.format(entry.getKey()), entry.getValue());
+            rounds += entry.getValue().getRoundCount();
+        }
+        log.info("Recovered {} games with {} rounds from {} log records in {} ms.",
+                recovered.size(), rounds, records, (System.nanoTime() - start) / 1_000_000);
+
+        snapshot();
+    }
+
+    @Override
+    public long gameStarted(String gameId) {
+        return append(WriteAheadLog.GAME_STARTED, gameId, 0, 0);
+    }
+
+    @Override
+    public long roundPlayed(String gameId, int roundIndex, Round round) {
+        int packed = round.userMove().ordinal()
+                | round.computerMove().ordinal() << 2
+                | round.result().ordinal() << 4;
+        return append(WriteAheadLog.ROUND_PLAYED, gameId, roundIndex, packed);
+    }
+
+    @Override
+    public long gameEnded(String gameId) {
+        return append(WriteAheadLog.GAME_ENDED, gameId, 0, 0);
+    }
+
+    @Override
+    public void awaitDurable(long position) {
+        if (syncCommit) {
+            wal.awaitDurable(position);
+        }
+    }
+
+    @Override
+    public boolean blocksOnCommit() {
+        return syncCommit;
+    }
+
+    /**
+     * Writes a snapshot of every live game and deletes the log segments it covers. Skipped if nothing was logged
+     * since the last snapshot.
+     * <p>
+     * The log is rolled first, so every event after the roll is in the segments the snapshot does not cover. Each
+     * game is copied under its lock, so its copy contains exactly the rounds logged before the copy was taken.
+     */
+    @Scheduled(fixedDelayString = "${rps.wal.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        snapshotLock.lock();
+        try {
+            long position = wal.position();
+            if (position == snapshotPosition) {
+                return;
+            }
+            long start = System.nanoTime();
+            long firstSegment = wal.roll();
+            int written = snapshots.write(firstSegment, writer -> {
+                try {
+                    games.forEach((gameId, game) -> {
+                        PackedHistory history = game.snapshot().history();
+                        try {
+                            writer.write(0, GameIds.parse(gameId), history);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            });
+            wal.truncateBefore(firstSegment);
+            snapshotPosition = position;
+            log.info("Wrote a snapshot of {} games in {} ms.", written, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("Failed to write a snapshot; the log is kept until the next one succeeds.", e);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        wal.close();
+    }
+
+    private long append(byte type, String gameId, int roundIndex, int round) {
+        return wal.append(type, 0, GameIds.parse(gameId), roundIndex, round);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.rps.persistence;
+
+import com.example.rps.model.Round;
+
+/**
+ * Records the events that change game state so the sessions can be rebuilt after a restart.
+ * <p>
+ * Events of one game must be recorded while holding that game's lock, so the journal sees them in the order they
+ * were applied. Every method returns a log position; {@link #awaitDurable(long)} blocks until the event at that
+ * position is on disk and should be called after releasing the lock.
+ */
+public interface GameJournal {
+
+    long gameStarted(String gameId);
+
+    /**
+     * @param roundIndex Zero-based number of the round within its game.
+     */
+    long roundPlayed(String gameId, int roundIndex, Round round);
+
+    /**
+     * Records that a game was terminated or evicted.
+     */
+    long gameEnded(String gameId);
+
+    void awaitDurable(long position);
+
+    /**
+     * @return Whether {@link #awaitDurable(long)} can block the calling thread on disk I/O.
+     */
+    default boolean blocksOnCommit() {
+        return false;
+    }
+}
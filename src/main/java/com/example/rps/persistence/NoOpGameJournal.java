@@ -0,0 +1,32 @@
+package com.example.rps.persistence;
+
+import com.example.rps.model.Round;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Journal used while the write-ahead log is disabled; games live only in memory.
+ */
+@Component
+@ConditionalOnProperty(name = "rps.wal.enabled", havingValue = "false", matchIfMissing = true)
+public class NoOpGameJournal implements GameJournal {
+
+    @Override
+    public long gameStarted(String gameId) {
+        return 0;
+    }
+
+    @Override
+    public long roundPlayed(String gameId, int roundIndex, Round round) {
+        return 0;
+    }
+
+    @Override
+    public long gameEnded(String gameId) {
+        return 0;
+    }
+
+    @Override
+    public void awaitDurable(long position) {
+    }
+}
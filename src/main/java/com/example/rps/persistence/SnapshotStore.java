@@ -0,0 +1,160 @@
+package com.example.rps.persistence;
+
+import com.example.rps.model.PackedHistory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Snapshot files of every live game, named {@code snapshot-<segment>.bin} after the first log segment they do not
+ * cover. A snapshot is written to a temporary file, forced to disk and renamed, so a crash leaves either the old or
+ * the new snapshot; older snapshots are deleted once the new one is in place.
+ */
+public class SnapshotStore {
+
+    private static final int MAGIC = 0x52505331;
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final String TEMPORARY_FILE = "snapshot.tmp";
+
+    private static final byte GAME = 1;
+    private static final byte END = 0;
+
+    /**
+     * Writes the games of one snapshot through {@link Writer#write}.
+     */
+    @FunctionalInterface
+    public interface Content {
+
+        void writeTo(Writer writer) throws IOException;
+    }
+
+    /**
+     * Receives the games of a snapshot as it is read.
+     */
+    @FunctionalInterface
+    public interface GameHandler {
+
+        void accept(long idHigh, long idLow, PackedHistory history);
+    }
+
+    public static final class Writer {
+
+        private final DataOutputStream out;
+        private int games;
+
+        private Writer(DataOutputStream out) {
+            this.out = out;
+        }
+
+        public void write(long idHigh, long idLow, PackedHistory history) throws IOException {
+            out.writeByte(GAME);
+            out.writeLong(idHigh);
+            out.writeLong(idLow);
+            history.writeTo(out);
+            games++;
+        }
+    }
+
+    private final Path directory;
+
+    public SnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Writes a snapshot that covers the log up to, but not including, the given segment.
+     *
+     * @return Number of games written.
+     */
+    public int write(long firstSegment, Content content) throws IOException {
+        Path temporary = directory.resolve(TEMPORARY_FILE);
+        Writer writer;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeLong(firstSegment);
+            writer = new Writer(out);
+            content.writeTo(writer);
+            out.writeByte(END);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, snapshotPath(firstSegment), StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory();
+
+        for (long segment : snapshots()) {
+            if (segment < firstSegment) {
+                Files.deleteIfExists(snapshotPath(segment));
+            }
+        }
+        return writer.games;
+    }
+
+    /**
+     * Reads the latest snapshot, if there is one.
+     *
+     * @return The first log segment the snapshot does not cover, from which the log must be replayed.
+     */
+    public long load(GameHandler handler) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        List<Long> segments = snapshots();
+        if (segments.isEmpty()) {
+            return 0;
+        }
+        Path file = snapshotPath(segments.get(segments.size() - 1));
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a game snapshot: " + file);
+            }
+            long firstSegment = in.readLong();
+            while (in.readByte() == GAME) {
+                long idHigh = in.readLong();
+                long idLow = in.readLong();
+                handler.accept(idHigh, idLow, PackedHistory.readFrom(in));
+            }
+            return firstSegment;
+        }
+    }
+
+    private void forceDirectory() {
+        // Makes the rename durable. Not every platform can open a directory, and the rename is atomic regardless.
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Best effort.
+        }
+    }
+
+    private List<Long> snapshots() throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX))
+                    .forEach(name -> segments.add(Long.parseLong(
+                            name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()))));
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private Path snapshotPath(long segment) {
+        return directory.resolve(String.format("%s%016d%s", SNAPSHOT_PREFIX, segment, SNAPSHOT_SUFFIX));
+    }
+}
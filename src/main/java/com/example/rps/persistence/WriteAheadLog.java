@@ -0,0 +1,423 @@
+package com.example.rps.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of fixed-width records in memory-mapped segment files named {@code wal-<sequence>.log}.
+ * <p>
+ * A record is 24 bytes: a 128-bit game ID field (game IDs use the low half), the round index, the record type,
+ * the round packed like {@link com.example.rps.model.PackedHistory} packs it, and a 16-bit checksum. An append only
+ * copies the record into the mapped segment under a short lock, with no system call. A background thread creates and
+ * maps the next segment ahead of time, so a full segment is only swapped for it, and forces the segments to disk at a
+ * fixed interval, or as soon as a caller waits in {@link #awaitDurable(long)}; all appends made in the meantime share
+ * one fsync (group commit).
+ * <p>
+ * Unwritten parts of a segment read as zero, which is not a valid record type, so replay stops at the end of the
+ * data or at the first record torn by a crash.
+ */
+public class WriteAheadLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    public static final int RECORD_BYTES = 24;
+
+    public static final byte GAME_STARTED = 1;
+    public static final byte ROUND_PLAYED = 2;
+    public static final byte GAME_ENDED = 3;
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final int ID_HIGH_OFFSET = 0;
+    private static final int ID_LOW_OFFSET = 8;
+    private static final int INDEX_OFFSET = 16;
+    private static final int TYPE_OFFSET = 20;
+    private static final int ROUND_OFFSET = 21;
+    private static final int CHECKSUM_OFFSET = 22;
+
+    /**
+     * Receives the records of the log in the order they were appended.
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+
+        void accept(byte type, long idHigh, long idLow, int roundIndex, int round);
+    }
+
+    /**
+     * A mapped segment file: the next one prepared ahead of time, or a full one whose records still have to be forced
+     * to disk before the durable position can pass them.
+     */
+    private record Segment(long sequence, FileChannel channel, MappedByteBuffer buffer) {
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long flushIntervalNanos;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock forceLock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ReentrantLock spareLock = new ReentrantLock();
+    private final Condition flushed = flushLock.newCondition();
+    private final Thread flusher;
+
+    // Guarded by appendLock.
+    private Segment current;
+    private MappedByteBuffer buffer;
+    private int offset;
+    private long appended;
+    private boolean closed;
+    private final List<Segment> retired = new ArrayList<>();
+
+    // Guarded by spareLock. Segments are created in sequence order and used in the order they were created.
+    private long nextSequence;
+    private Segment spare;
+
+    private volatile long durable;
+
+    /**
+     * Opens the log for appending in a new segment after the existing ones, and starts the group-commit thread.
+     *
+     * @param segmentBytes  Size of a segment file, rounded down to whole records.
+     * @param flushInterval Delay between forcing appended records to disk.
+     */
+    public WriteAheadLog(Path directory, long segmentBytes, Duration flushInterval) throws IOException {
+        long records = Math.min(segmentBytes, Integer.MAX_VALUE) / RECORD_BYTES;
+        if (records < 1) {
+            throw new IllegalArgumentException("Segment must hold at least one record: " + segmentBytes);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = (int) records * RECORD_BYTES;
+        this.flushIntervalNanos = Math.max(1, flushInterval.toNanos());
+
+        List<Long> existing = segments(directory);
+        this.nextSequence = existing.isEmpty() ? 0 : existing.get(existing.size() - 1) + 1;
+        this.current = openSegment();
+        this.buffer = current.buffer();
+
+        this.flusher = new Thread(this::runFlusher, "wal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @return The log position just past the record, to pass to {@link #awaitDurable(long)}.
+     */
+    public long append(byte type, long idHigh, long idLow, int roundIndex, int round) {
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Write-ahead log is closed.");
+            }
+            if (offset == segmentBytes) {
+                // The full segment is forced by the flusher, never by a caller that may hold a game lock.
+                rollSegment();
+            }
+            MappedByteBuffer target = buffer;
+            int at = offset;
+            target.putLong(at + ID_HIGH_OFFSET, idHigh);
+            target.putLong(at + ID_LOW_OFFSET, idLow);
+            target.putInt(at + INDEX_OFFSET, roundIndex);
+            target.put(at + ROUND_OFFSET, (byte) round);
+            target.putShort(at + CHECKSUM_OFFSET, checksum(type, idHigh, idLow, roundIndex, round));
+            // The type goes last: a record whose type is set is complete once the checksum matches.
+            target.put(at + TYPE_OFFSET, type);
+            offset = at + RECORD_BYTES;
+            appended += RECORD_BYTES;
+            return appended;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until every record up to the given position has been forced to disk by the group-commit thread.
+     */
+    public void awaitDurable(long position) {
+        if (durable >= position) {
+            return;
+        }
+        // Wake the flusher rather than wait out its interval; appends arriving during its fsync share the next one.
+        LockSupport.unpark(flusher);
+        flushLock.lock();
+        try {
+            while (durable < position) {
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Starts a new segment and forces the previous ones to disk.
+     *
+     * @return The sequence number of the new segment; every later record is in it or after it.
+     */
+    public long roll() {
+        long next;
+        appendLock.lock();
+        try {
+            rollSegment();
+            next = current.sequence();
+        } finally {
+            appendLock.unlock();
+        }
+        flush();
+        return next;
+    }
+
+    /**
+     * @return Number of bytes appended since the log was opened.
+     */
+    public long position() {
+        appendLock.lock();
+        try {
+            return appended;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the segments before the given one, once a snapshot covers them.
+     */
+    public void truncateBefore(long firstSegment) throws IOException {
+        for (long sequence : segments(directory)) {
+            if (sequence < firstSegment) {
+                Files.deleteIfExists(segmentPath(directory, sequence));
+            }
+        }
+    }
+
+    /**
+     * Reads the records of the segments from {@code firstSegment} on, in order. Must run before the log is opened
+     * for appending, so no segment is being written.
+     *
+     * @return Number of records read.
+     */
+    public static long replay(Path directory, long firstSegment, RecordHandler handler) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        long records = 0;
+        for (long sequence : segments(directory)) {
+            if (sequence < firstSegment) {
+                continue;
+            }
+            try (FileChannel segmentChannel = FileChannel.open(segmentPath(directory, sequence), StandardOpenOption.READ)) {
+                MappedByteBuffer data = segmentChannel.map(FileChannel.MapMode.READ_ONLY, 0, segmentChannel.size());
+                for (int at = 0; at + RECORD_BYTES <= data.limit(); at += RECORD_BYTES) {
+                    byte type = data.get(at + TYPE_OFFSET);
+                    long idHigh = data.getLong(at + ID_HIGH_OFFSET);
+                    long idLow = data.getLong(at + ID_LOW_OFFSET);
+                    int roundIndex = data.getInt(at + INDEX_OFFSET);
+                    int round = data.get(at + ROUND_OFFSET);
+                    if (type < GAME_STARTED || type > GAME_ENDED
+                            || data.getShort(at + CHECKSUM_OFFSET) != checksum(type, idHigh, idLow, roundIndex, round)) {
+                        break;
+                    }
+                    handler.accept(type, idHigh, idLow, roundIndex, round);
+                    records++;
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Forces the remaining records to disk and stops the group-commit thread.
+     */
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            appendLock.unlock();
+        }
+        flusher.interrupt();
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        current.channel().close();
+        // The unused spare holds no records; deleting it keeps an empty segment from piling up at every restart.
+        spareLock.lock();
+        try {
+            if (spare != null) {
+                spare.channel().close();
+                Files.deleteIfExists(segmentPath(directory, spare.sequence()));
+                spare = null;
+            }
+        } finally {
+            spareLock.unlock();
+        }
+    }
+
+    private void runFlusher() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                prepareSpare();
+            } catch (IOException e) {
+                log.warn("Failed to prepare the next write-ahead log segment; the roll will create it.", e);
+            }
+            LockSupport.parkNanos(flushIntervalNanos);
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Failed to force the write-ahead log to disk.", e);
+            }
+        }
+    }
+
+    /**
+     * Forces the retired segments and then the current one, and publishes the position they cover. Runs without the
+     * append lock, so appends never wait for an fsync; flushes are serialized so the durable position only advances
+     * past a retired segment once it is on disk.
+     */
+    private void flush() {
+        forceLock.lock();
+        try {
+            List<Segment> full;
+            MappedByteBuffer target;
+            long position;
+            appendLock.lock();
+            try {
+                full = List.copyOf(retired);
+                retired.clear();
+                target = buffer;
+                position = appended;
+            } finally {
+                appendLock.unlock();
+            }
+            for (Segment old : full) {
+                old.buffer().force();
+                try {
+                    old.channel().close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to close a write-ahead log segment.", e);
+                }
+            }
+            if (position == durable) {
+                return;
+            }
+            target.force();
+
+            flushLock.lock();
+            try {
+                durable = position;
+                flushed.signalAll();
+            } finally {
+                flushLock.unlock();
+            }
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    /**
+     * Swaps the current segment for the spare one and hands it to the flusher. Creates the next segment only if the
+     * flusher has not prepared it yet; if that fails, nothing changes and the append can be retried.
+     */
+    private void rollSegment() {
+        Segment next;
+        spareLock.lock();
+        try {
+            next = spare != null ? spare : openSegment();
+            spare = null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll the write-ahead log.", e);
+        } finally {
+            spareLock.unlock();
+        }
+        retired.add(current);
+        current = next;
+        buffer = next.buffer();
+        offset = 0;
+        // Forces the full segment and prepares the one after the new segment.
+        LockSupport.unpark(flusher);
+    }
+
+    /**
+     * Creates and maps the segment the next roll swaps in, without the append lock.
+     */
+    private void prepareSpare() throws IOException {
+        spareLock.lock();
+        try {
+            if (spare == null) {
+                spare = openSegment();
+            }
+        } finally {
+            spareLock.unlock();
+        }
+    }
+
+    /**
+     * Creates and maps the segment after the last one created. Must be called with the spare lock held, or from the
+     * constructor; the sequence number is only used up once the segment is mapped.
+     */
+    private Segment openSegment() throws IOException {
+        Path path = segmentPath(directory, nextSequence);
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            Segment segment = new Segment(nextSequence, channel, mapped);
+            nextSequence++;
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    private static List<Long> segments(Path directory) throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> sequences.add(Long.parseLong(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        sequences.sort(null);
+        return sequences;
+    }
+
+    private static Path segmentPath(Path directory, long sequence) {
+        return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    }
+
+    private static short checksum(byte type, long idHigh, long idLow, int roundIndex, int round) {
+        long h = idHigh * 0x9E3779B97F4A7C15L ^ idLow;
+        h = h * 0x9E3779B97F4A7C15L ^ ((long) roundIndex << 16 | (type & 0xFF) << 8 | round & 0xFF);
+        h *= 0x9E3779B97F4A7C15L;
+        return (short) (h >>> 48);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.rps.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of requests in flight. A request over the cap is refused at once rather than queued, so an
+ * overload cannot grow queues or the heap.
+ */
+public class ConcurrencyLimiter {
+
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * @param maxInFlight Maximum number of concurrent requests; {@code 0} or less disables the cap.
+     */
+    public ConcurrencyLimiter(int maxInFlight) {
+        this.maxInFlight = maxInFlight <= 0 ? Integer.MAX_VALUE : maxInFlight;
+    }
+
+    /**
+     * @return Whether the request may proceed; if so, {@link #release()} must be called once it completes.
+     */
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.rps.ratelimit;
+
+import com.example.rps.cluster.ClusterClient;
+import com.example.rps.cluster.ClusterSecret;
+import com.example.rps.controller.ReactiveGameController;
+import com.example.rps.dto.GameResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies the {@link RateLimits} to the game API on the servlet stack.
+ * <p>
+ * A refused request is answered at once with 429 and a {@code Retry-After} header, before any game or request body is
+ * touched. Requests forwarded by another cluster member were admitted there and pass unchecked, but only in cluster
+ * mode and with the {@link ClusterSecret}, so clients cannot skip the limits by sending the forwarding header; the
+ * rounds of a forwarded batch are still charged here, to the client the member names. Runs before the cluster routing
+ * filter.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Profile("!" + ReactiveGameController.PROFILE)
+@ConditionalOnProperty(name = "rps.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimits rateLimits;
+    private final ClusterSecret clusterSecret;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param clusterSecret Present in cluster mode only.
+     */
+    @Autowired
+    public RateLimitFilter(RateLimits rateLimits, ObjectProvider<ClusterSecret> clusterSecret, ObjectMapper objectMapper) {
+        this.rateLimits = rateLimits;
+        this.clusterSecret = clusterSecret.getIfAvailable();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !path(request).startsWith(RateLimits.GAME_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isFromClusterMember(request)) {
+            request.setAttribute(RateLimits.CLIENT_ATTRIBUTE, request.getHeader(ClusterClient.CLIENT_HEADER));
+            chain.doFilter(request, response);
+            return;
+        }
+        String client = rateLimits.client(request::getHeader, request.getRemoteAddr());
+        request.setAttribute(RateLimits.CLIENT_ATTRIBUTE, client);
+        long wait = rateLimits.tryAcquire(request.getMethod(), path(request), client);
+        if (wait > 0) {
+            reject(response, wait, "Too many requests; retry later.");
+            return;
+        }
+        if (!rateLimits.tryEnter()) {
+            reject(response, RateLimits.OVERLOAD_RETRY_NANOS, "The server is overloaded; retry later.");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            rateLimits.exit();
+        }
+    }
+
+    private boolean isFromClusterMember(HttpServletRequest request) {
+        return clusterSecret != null
+                && request.getHeader(ClusterClient.FORWARDED_BY_HEADER) != null
+                && clusterSecret.matches(request.getHeader(ClusterSecret.HEADER));
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos, String message) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, RateLimits.retryAfterSeconds(waitNanos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new GameResponse(false, message));
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.rps.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets by client, bounded to {@code maxClients} entries.
+ * <p>
+ * Full buckets behave exactly like new ones, so {@link #sweep(long)} drops them without changing any client's limit.
+ * When the registry is full even after a sweep, clients without a bucket share one overflow bucket: a flood of new
+ * client keys then throttles itself instead of growing the registry. A request that races with the sweep of its
+ * client's bucket may get one extra token.
+ */
+public class RateLimiterRegistry {
+
+    /**
+     * Minimum delay between sweeps triggered by a full registry, so new keys arriving at a full registry do not each
+     * scan it.
+     */
+    private static final long MIN_INLINE_SWEEP_INTERVAL_NANOS = 100_000_000L;
+
+    private final double tokensPerSecond;
+    private final int burst;
+    private final int maxClients;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflow;
+    private final AtomicLong lastInlineSweep;
+
+    public RateLimiterRegistry(double tokensPerSecond, int burst, int maxClients) {
+        if (maxClients < 1) {
+            throw new IllegalArgumentException("Max clients must be positive: " + maxClients);
+        }
+        long now = System.nanoTime();
+        this.tokensPerSecond = tokensPerSecond;
+        this.burst = burst;
+        this.maxClients = maxClients;
+        this.overflow = new TokenBucket(tokensPerSecond, burst, now);
+        this.lastInlineSweep = new AtomicLong(now - MIN_INLINE_SWEEP_INTERVAL_NANOS);
+    }
+
+    /**
+     * Takes a token from the client's bucket, creating the bucket if needed.
+     *
+     * @return {@code 0} if allowed, otherwise the nanoseconds until the client may retry.
+     */
+    public long tryAcquire(String client, long now) {
+        return tryAcquire(client, now, 1);
+    }
+
+    /**
+     * Takes tokens from the client's bucket, creating the bucket if needed, as {@link TokenBucket#tryAcquire(long, int)}.
+     *
+     * @return {@code 0} if allowed, otherwise the nanoseconds until the client may retry.
+     */
+    public long tryAcquire(String client, long now, int tokens) {
+        TokenBucket bucket = buckets.get(client);
+        if (bucket == null) {
+            bucket = register(client, now);
+        }
+        return bucket.tryAcquire(now, tokens);
+    }
+
+    /**
+     * Drops the buckets that are full.
+     *
+     * @return Number of buckets dropped.
+     */
+    public int sweep(long now) {
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+        return Math.max(0, before - buckets.size());
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private TokenBucket register(String client, long now) {
+        if (buckets.size() >= maxClients) {
+            long last = lastInlineSweep.get();
+            if (now - last >= MIN_INLINE_SWEEP_INTERVAL_NANOS && lastInlineSweep.compareAndSet(last, now)) {
+                sweep(now);
+            }
+            if (buckets.size() >= maxClients) {
+                return overflow;
+            }
+        }
+        return buckets.computeIfAbsent(client, key -> new TokenBucket(tokensPerSecond, burst, now));
+    }
+}
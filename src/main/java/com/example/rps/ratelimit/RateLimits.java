@@ -0,0 +1,199 @@
+package com.example.rps.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * The admission limits of the game API, shared by every way in: the servlet and reactive filters and the WebSocket
+ * play mode. Enabled by default with {@code rps.ratelimit.enabled}.
+ * <p>
+ * Starting a game takes a token from the client's start bucket, every round played takes one from its move bucket,
+ * and every game request must fit under the global cap on requests in flight. The filters charge requests whose cost
+ * is known from the path; batches, streams and WebSocket frames are charged by the code that reads their moves, with
+ * the client the filter stored in the {@value #CLIENT_ATTRIBUTE} request attribute. Clients are told apart by remote address, or behind proxies by
+ * {@code rps.ratelimit.client-header}. Each of the {@code rps.ratelimit.trusted-proxies} proxies appends the address
+ * it was reached from to that header, so the client is the entry that many places from the end; entries before it
+ * were written by the client and are ignored.
+ */
+@Component
+@ConditionalOnProperty(name = "rps.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimits {
+
+    public static final String GAME_PREFIX = "/game/";
+
+    /**
+     * Request attribute holding the key of an admitted request's client, for charging the rounds of a batch.
+     */
+    public static final String CLIENT_ATTRIBUTE = "com.example.rps.ratelimit.client";
+
+    private static final String START_PATH = "/game/start";
+    private static final String MOVE_PATH = "/game/move";
+
+    /**
+     * Wait suggested to clients refused by the concurrency cap, which has no refill time.
+     */
+    public static final long OVERLOAD_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimiterRegistry startLimits;
+    private final RateLimiterRegistry roundLimits;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final String clientHeader;
+    private final int trustedProxies;
+
+    private final LongAdder startRejections = new LongAdder();
+    private final LongAdder roundRejections = new LongAdder();
+    private final LongAdder concurrencyRejections = new LongAdder();
+
+    /**
+     * @param clientHeader   Header naming the client, such as {@code X-Forwarded-For}; empty to use the remote address.
+     * @param trustedProxies Proxies in front of this server that append to the client header.
+     */
+    @Autowired
+    public RateLimits(@Value("${rps.ratelimit.starts-per-second:5}") double startsPerSecond,
+                      @Value("${rps.ratelimit.start-burst:20}") int startBurst,
+                      @Value("${rps.ratelimit.rounds-per-second:500}") double roundsPerSecond,
+                      @Value("${rps.ratelimit.round-burst:1000}") int roundBurst,
+                      @Value("${rps.ratelimit.max-clients:100000}") int maxClients,
+                      @Value("${rps.ratelimit.max-concurrent-requests:2000}") int maxConcurrentRequests,
+                      @Value("${rps.ratelimit.client-header:}") String clientHeader,
+                      @Value("${rps.ratelimit.trusted-proxies:1}") int trustedProxies,
+                      ObjectProvider<MeterRegistry> meterRegistry) {
+        if (trustedProxies < 1) {
+            throw new IllegalArgumentException("rps.ratelimit.trusted-proxies must be at least 1: " + trustedProxies);
+        }
+        this.startLimits = new RateLimiterRegistry(startsPerSecond, startBurst, maxClients);
+        this.roundLimits = new RateLimiterRegistry(roundsPerSecond, roundBurst, maxClients);
+        this.concurrencyLimiter = new ConcurrencyLimiter(maxConcurrentRequests);
+        this.clientHeader = clientHeader.isBlank() ? null : clientHeader;
+        this.trustedProxies = trustedProxies;
+        meterRegistry.ifAvailable(this::registerMeters);
+    }
+
+    /**
+     * Takes a token for a request if its method and path start a game or play one move. Batches and streams are
+     * charged with {@link #tryAcquireRounds(String, int)} once their moves are read.
+     *
+     * @param path Path within the application.
+     * @return 0 if the request is admitted or not limited, otherwise the nanoseconds until the client may retry.
+     */
+    public long tryAcquire(String method, String path, String client) {
+        if (!"POST".equals(method)) {
+            return 0;
+        }
+        if (START_PATH.equals(path)) {
+            return acquire(startLimits, startRejections, client, 1);
+        }
+        if (MOVE_PATH.equals(path)) {
+            return acquire(roundLimits, roundRejections, client, 1);
+        }
+        return 0;
+    }
+
+    /**
+     * Takes a token per round from the client's move bucket, for a batch, a chunk of a stream or a WebSocket frame.
+     * A batch larger than the tokens left is admitted while one is left, and the client then waits for the rest.
+     *
+     * @param client The client key, or {@code null} for requests the filters did not admit, which are not charged.
+     * @return 0 if admitted, otherwise the nanoseconds until the client may retry.
+     */
+    public long tryAcquireRounds(String client, int rounds) {
+        return client == null ? 0 : acquire(roundLimits, roundRejections, client, rounds);
+    }
+
+    /**
+     * Admits a request under the cap on requests in flight; every admitted request must call {@link #exit()}.
+     */
+    public boolean tryEnter() {
+        if (concurrencyLimiter.tryAcquire()) {
+            return true;
+        }
+        concurrencyRejections.increment();
+        return false;
+    }
+
+    public void exit() {
+        concurrencyLimiter.release();
+    }
+
+    /**
+     * @param headers       Reads a request header by name.
+     * @param remoteAddress Address the connection came from.
+     * @return The key of the client's buckets.
+     */
+    public String client(UnaryOperator<String> headers, String remoteAddress) {
+        if (clientHeader != null) {
+            String client = clientFromHeader(headers.apply(clientHeader), trustedProxies);
+            if (client != null) {
+                return client;
+            }
+        }
+        return remoteAddress;
+    }
+
+    /**
+     * Drops the buckets of clients that have been quiet long enough to have full buckets again.
+     */
+    @Scheduled(fixedDelayString = "${rps.ratelimit.sweep-interval-ms:10000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        startLimits.sweep(now);
+        roundLimits.sweep(now);
+    }
+
+    /**
+     * @return The entry {@code trustedProxies} places from the end of a comma-separated header, or {@code null} if
+     * the header is missing or has fewer entries, which means the request did not come through the proxies.
+     */
+    public static String clientFromHeader(String value, int trustedProxies) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        int end = value.length();
+        for (int hop = 1; hop < trustedProxies; hop++) {
+            end = value.lastIndexOf(',', end - 1);
+            if (end < 0) {
+                return null;
+            }
+        }
+        String client = value.substring(value.lastIndexOf(',', end - 1) + 1, end).trim();
+        return client.isEmpty() ? null : client;
+    }
+
+    /**
+     * @return The value of a {@code Retry-After} header: whole seconds, rounded up.
+     */
+    public static String retryAfterSeconds(long waitNanos) {
+        return String.valueOf(Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L));
+    }
+
+    private static long acquire(RateLimiterRegistry limits, LongAdder rejections, String client, int tokens) {
+        long wait = limits.tryAcquire(client, System.nanoTime(), tokens);
+        if (wait > 0) {
+            rejections.increment();
+        }
+        return wait;
+    }
+
+    private void registerMeters(MeterRegistry registry) {
+        rejectionCounter(registry, "start", startRejections);
+        rejectionCounter(registry, "round", roundRejections);
+        rejectionCounter(registry, "concurrency", concurrencyRejections);
+    }
+
+    private static void rejectionCounter(MeterRegistry registry, String reason, LongAdder rejections) {
+        FunctionCounter.builder("rps.ratelimit.rejections", rejections, LongAdder::sum)
+                .description("Requests refused with 429, by the limit they exceeded")
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.rps.ratelimit;
+
+import com.example.rps.controller.ReactiveGameController;
+import com.example.rps.dto.GameResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Applies the {@link RateLimits} to the game API with the {@value ReactiveGameController#PROFILE} profile, like
+ * {@link RateLimitFilter} does on the servlet stack. A request counts against the cap on requests in flight until its
+ * response completes, so a streamed game holds its place for as long as it streams.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Profile(ReactiveGameController.PROFILE)
+@ConditionalOnProperty(name = "rps.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveRateLimitFilter implements WebFilter {
+
+    private final RateLimits rateLimits;
+    private final ObjectMapper objectMapper;
+
+    public ReactiveRateLimitFilter(RateLimits rateLimits, ObjectMapper objectMapper) {
+        this.rateLimits = rateLimits;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().pathWithinApplication().value();
+        if (!path.startsWith(RateLimits.GAME_PREFIX)) {
+            return chain.filter(exchange);
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String client = rateLimits.client(request.getHeaders()::getFirst,
+                remoteAddress == null ? "" : remoteAddress.getHostString());
+        exchange.getAttributes().put(RateLimits.CLIENT_ATTRIBUTE, client);
+        long wait = rateLimits.tryAcquire(request.getMethod().name(), path, client);
+        if (wait > 0) {
+            return reject(exchange.getResponse(), wait, "Too many requests; retry later.");
+        }
+        if (!rateLimits.tryEnter()) {
+            return reject(exchange.getResponse(), RateLimits.OVERLOAD_RETRY_NANOS, "The server is overloaded; retry later.");
+        }
+        // Runs once, on completion, error or cancellation.
+        return chain.filter(exchange).doFinally(signal -> rateLimits.exit());
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, long waitNanos, String message) {
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, RateLimits.retryAfterSeconds(waitNanos));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(new GameResponse(false, message));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
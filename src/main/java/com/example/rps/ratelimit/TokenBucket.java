@@ -0,0 +1,90 @@
+package com.example.rps.ratelimit;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Lock-free token bucket holding up to {@code burst} tokens, refilled at a fixed rate.
+ * <p>
+ * The bucket is kept as the single timestamp at which it will be full again (the generic cell rate algorithm), so
+ * taking a token is one compare-and-set, with neither a lock nor a refill step. A bucket whose timestamp has passed
+ * is full, and therefore indistinguishable from a new one; {@link #isIdle(long)} lets a registry drop it.
+ */
+public final class TokenBucket {
+
+    private static final VarHandle FULL_AT;
+
+    static {
+        try {
+            FULL_AT = MethodHandles.lookup().findVarHandle(TokenBucket.class, "fullAt", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+
+    private volatile long fullAt;
+
+    /**
+     * Creates a full bucket.
+     *
+     * @param now {@link System#nanoTime()} at creation.
+     */
+    public TokenBucket(double tokensPerSecond, int burst, long now) {
+        if (tokensPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive: " + tokensPerSecond + ", " + burst);
+        }
+        this.nanosPerToken = Math.max(1, Math.round(1_000_000_000 / tokensPerSecond));
+        try {
+            this.burstNanos = Math.multiplyExact(nanosPerToken, (long) burst);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Burst too large for the rate: " + burst + " at " + tokensPerSecond + "/s", e);
+        }
+        this.fullAt = now;
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @param now The current {@link System#nanoTime()}.
+     * @return {@code 0} if a token was taken, otherwise the nanoseconds until the next one is available.
+     */
+    public long tryAcquire(long now) {
+        return tryAcquire(now, 1);
+    }
+
+    /**
+     * Takes tokens for a request that costs several, such as a batch of moves, if at least one is available. Tokens
+     * the bucket does not hold are borrowed from its refill, so the next request waits until they are repaid; a
+     * request may thus cost more than the burst, and over time the rate still holds.
+     *
+     * @param now    The current {@link System#nanoTime()}.
+     * @param tokens Tokens the request costs, at least 1.
+     * @return {@code 0} if the tokens were taken, otherwise the nanoseconds until the next one is available.
+     */
+    public long tryAcquire(long now, int tokens) {
+        if (tokens < 1) {
+            throw new IllegalArgumentException("Tokens must be positive: " + tokens);
+        }
+        while (true) {
+            long current = fullAt;
+            long start = Math.max(current, now);
+            long wait = start + nanosPerToken - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (FULL_AT.compareAndSet(this, current, start + nanosPerToken * tokens)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return Whether the bucket is full at the given time.
+     */
+    public boolean isIdle(long now) {
+        return fullAt - now <= 0;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.rps.repository;
+
+import com.example.rps.model.Game;
+
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Registry of live game sessions. Implementations must be safe for concurrent use by request threads.
+ */
+public interface GameRepository {
+
+    void save(String gameId, Game game);
+
+    /**
+     * Registers the game unless a game is already registered under the ID, which is then kept.
+     *
+     * @return Whether the game was registered.
+     */
+    boolean saveIfAbsent(String gameId, Game game);
+
+    /**
+     * Looks up a game and records the access, which keeps it from expiring.
+     */
+    Optional<Game> findById(String gameId);
+
+    /**
+     * Removes the game with the given ID.
+     *
+     * @param gameId The ID of the game to remove.
+     * @return The removed game, or {@code null} if no game was registered under that ID.
+     */
+    Game deleteById(String gameId);
+
+    int count();
+
+    /**
+     * Calls the action for every live game. Iteration is weakly consistent: games added or removed meanwhile may or
+     * may not be visited.
+     */
+    void forEach(BiConsumer<String, Game> action);
+
+    /**
+     * Registers a callback for games the repository evicts on its own, because they expired or the store was full.
+     * The callback runs while the game's lock is held and after the game is closed, so no round can interleave with it.
+     */
+    void addEvictionListener(BiConsumer<String, Game> listener);
+
+    SessionStoreStatistics getStatistics();
+}
@@ -0,0 +1,289 @@
+package com.example.rps.repository;
+
+import com.example.rps.model.Game;
+import com.example.rps.util.GameIds;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Hash map from primitive {@code long} game IDs to games, safe for concurrent use.
+ * <p>
+ * Keys and values sit in two parallel arrays with linear probing, kept at most half full, and removals shift later
+ * entries back instead of leaving tombstones. Lookups neither box the key nor allocate, and run without locking: they
+ * read under an optimistic stamp of a {@link StampedLock} and only retry under the read lock if a write overlapped.
+ * Writes take the write lock. {@link GameIds#INVALID} marks empty slots and cannot be a key.
+ */
+public class LongGameMap {
+
+    /**
+     * Receives an entry of the map.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+
+        void accept(long gameId, Game game);
+    }
+
+    private static final int MIN_CAPACITY = 16;
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+
+    private final StampedLock lock = new StampedLock();
+
+    // Replaced as a whole when the map grows, so a reader always sees arrays of the same length. Guarded by lock.
+    private Table table = new Table(MIN_CAPACITY);
+    private int size;
+    private int sampleCursor;
+
+    public Game get(long gameId) {
+        long stamp = lock.tryOptimisticRead();
+        Game game = find(table, gameId);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                game = find(table, gameId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return game;
+    }
+
+    /**
+     * @return The game previously registered under the ID, or {@code null}.
+     */
+    public Game put(long gameId, Game game) {
+        if (gameId == GameIds.INVALID) {
+            throw new IllegalArgumentException("Invalid game ID: " + gameId);
+        }
+        long stamp = lock.writeLock();
+        try {
+            Table current = table;
+            int slot = slotOf(current, gameId);
+            if (current.keys[slot] == gameId) {
+                Game previous = current.values[slot];
+                current.values[slot] = game;
+                return previous;
+            }
+            if (size + 1 > current.keys.length >>> 1) {
+                current = resize(current.keys.length << 1);
+                slot = slotOf(current, gameId);
+            }
+            current.keys[slot] = gameId;
+            current.values[slot] = game;
+            size++;
+            return null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Registers the game unless the ID is taken.
+     *
+     * @return The game already registered under the ID, or {@code null} if the given game was registered.
+     */
+    public Game putIfAbsent(long gameId, Game game) {
+        if (gameId == GameIds.INVALID) {
+            throw new IllegalArgumentException("Invalid game ID: " + gameId);
+        }
+        long stamp = lock.writeLock();
+        try {
+            Table current = table;
+            int slot = slotOf(current, gameId);
+            if (current.keys[slot] == gameId) {
+                return current.values[slot];
+            }
+            if (size + 1 > current.keys.length >>> 1) {
+                current = resize(current.keys.length << 1);
+                slot = slotOf(current, gameId);
+            }
+            current.keys[slot] = gameId;
+            current.values[slot] = game;
+            size++;
+            return null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return The removed game, or {@code null} if no game was registered under the ID.
+     */
+    public Game remove(long gameId) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(table, gameId);
+            Game game = table.values[slot];
+            if (table.keys[slot] == gameId && game != null) {
+                delete(slot);
+            }
+            return game;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the entry only if the ID still maps to the given game.
+     */
+    public boolean remove(long gameId, Game game) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(table, gameId);
+            if (table.keys[slot] != gameId || table.values[slot] != game) {
+                return false;
+            }
+            delete(slot);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int count = size;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                count = size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Calls the action for a copy of the entries taken under the read lock, so the action may modify the map.
+     */
+    public void forEach(EntryConsumer action) {
+        long[] keys;
+        Game[] values;
+        long stamp = lock.readLock();
+        try {
+            keys = table.keys.clone();
+            values = table.values.clone();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != GameIds.INVALID) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Calls the action for up to {@code count} entries, starting where the previous sample stopped so that repeated
+     * samples cover the whole map. Runs under the read lock, so the action must not modify the map.
+     */
+    public void sample(int count, EntryConsumer action) {
+        long stamp = lock.readLock();
+        try {
+            long[] keys = table.keys;
+            int mask = keys.length - 1;
+            int at = sampleCursor & mask;
+            for (int visited = 0, sampled = 0; visited < keys.length && sampled < count; visited++) {
+                if (keys[at] != GameIds.INVALID) {
+                    action.accept(keys[at], table.values[at]);
+                    sampled++;
+                }
+                at = at + 1 & mask;
+            }
+            // A racy update of the cursor only makes two samples overlap.
+            sampleCursor = at;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Looks up a key. Under an optimistic read the table may change meanwhile, so the probe is bounded by the
+     * capacity and its result is only trusted once the stamp is validated.
+     */
+    private static Game find(Table table, long gameId) {
+        long[] keys = table.keys;
+        int mask = keys.length - 1;
+        int slot = indexFor(gameId, keys.length);
+        for (int probes = 0; probes < keys.length; probes++) {
+            long key = keys[slot];
+            if (key == gameId) {
+                return table.values[slot];
+            }
+            if (key == GameIds.INVALID) {
+                return null;
+            }
+            slot = slot + 1 & mask;
+        }
+        return null;
+    }
+
+    /**
+     * @return The slot holding the key, or the empty slot where it belongs. The table is never full.
+     */
+    private static int slotOf(Table table, long gameId) {
+        long[] keys = table.keys;
+        int mask = keys.length - 1;
+        int slot = indexFor(gameId, keys.length);
+        while (keys[slot] != gameId && keys[slot] != GameIds.INVALID) {
+            slot = slot + 1 & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empties a slot and moves back the entries of its probe run that would otherwise become unreachable.
+     */
+    private void delete(int slot) {
+        long[] keys = table.keys;
+        Game[] values = table.values;
+        int mask = keys.length - 1;
+        int hole = slot;
+        for (int next = hole + 1 & mask; keys[next] != GameIds.INVALID; next = next + 1 & mask) {
+            int home = indexFor(keys[next], keys.length);
+            // Move the entry if its home slot is not within the cyclic range (hole, next].
+            if ((next - home & mask) >= (next - hole & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = GameIds.INVALID;
+        values[hole] = null;
+        size--;
+    }
+
+    private Table resize(int capacity) {
+        Table old = table;
+        Table resized = new Table(capacity);
+        for (int i = 0; i < old.keys.length; i++) {
+            long key = old.keys[i];
+            if (key != GameIds.INVALID) {
+                int slot = slotOf(resized, key);
+                resized.keys[slot] = key;
+                resized.values[slot] = old.values[i];
+            }
+        }
+        table = resized;
+        return resized;
+    }
+
+    /**
+     * Fibonacci hashing: the top bits of the product depend on every bit of the ID.
+     */
+    private static int indexFor(long gameId, int capacity) {
+        return (int) (gameId * PHI >>> Long.SIZE - Integer.numberOfTrailingZeros(capacity));
+    }
+
+    private static final class Table {
+
+        final long[] keys;
+        final Game[] values;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Game[capacity];
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.rps.repository;
+
+/**
+ * Point-in-time view of the session store.
+ *
+ * @param liveSessions      Games currently registered.
+ * @param expiredEvictions  Games evicted because they were not accessed within the TTL.
+ * @param capacityEvictions Games evicted to stay under the session cap.
+ * @param estimatedBytes    Approximate heap held by live games, as of the last sweep.
+ */
+public record SessionStoreStatistics(
+        int liveSessions,
+        long expiredEvictions,
+        long capacityEvictions,
+        long estimatedBytes
+) {
+}
@@ -0,0 +1,237 @@
+package com.example.rps.repository;
+
+import com.example.rps.model.Game;
+import com.example.rps.util.GameIds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Game registry striped over a fixed number of {@link LongGameMap} shards, keyed by the game IDs parsed into
+ * {@code long}s. Lookups never lock and never allocate; writes only contend with other writes to the same shard.
+ * IDs that do not parse name no game, and saving a game under one is an error.
+ * <p>
+ * Sessions expire once they have not been accessed for the configured TTL and are removed by a background sweep
+ * that walks one shard at a time. When a shard exceeds its share of the session cap, the least recently accessed
+ * of a small sample of its games is evicted, which approximates LRU without maintaining an access order.
+ */
+@Repository
+public class ShardedGameRepository implements GameRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedGameRepository.class);
+
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+
+    private final LongGameMap[] shards;
+    private final int mask;
+    private final long ttlNanos;
+    private final int maxSessionsPerShard;
+    private final LongSupplier clock;
+
+    private final List<BiConsumer<String, Game>> evictionListeners = new CopyOnWriteArrayList<>();
+    private final LongAdder expiredEvictions = new LongAdder();
+    private final LongAdder capacityEvictions = new LongAdder();
+    private volatile long estimatedBytes;
+
+    @Autowired
+    public ShardedGameRepository(@Value("${rps.repository.shards:16}") int shardCount,
+                                 @Value("${rps.sessions.ttl:30m}") Duration ttl,
+                                 @Value("${rps.sessions.max:100000}") int maxSessions) {
+        this(shardCount, ttl, maxSessions, System::nanoTime);
+    }
+
+    /**
+     * Creates a repository whose sessions never expire and are never evicted.
+     */
+    public ShardedGameRepository(int shardCount) {
+        this(shardCount, Duration.ZERO, Integer.MAX_VALUE, System::nanoTime);
+    }
+
+    /**
+     * @param ttl         Idle time after which a session expires; zero or negative disables expiry.
+     * @param maxSessions Maximum number of live sessions, spread evenly over the shards.
+     * @param clock       Source of {@link System#nanoTime()}-style timestamps.
+     */
+    public ShardedGameRepository(int shardCount, Duration ttl, int maxSessions, LongSupplier clock) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("Maximum number of sessions must be positive: " + maxSessions);
+        }
+        int size = shardCount == 1 ? 1 : Integer.highestOneBit(shardCount - 1) << 1;
+        this.shards = new LongGameMap[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new LongGameMap();
+        }
+        this.mask = size - 1;
+        this.ttlNanos = ttl.isNegative() || ttl.isZero() ? Long.MAX_VALUE : ttl.toNanos();
+        this.maxSessionsPerShard = Math.max(1, maxSessions / size);
+        this.clock = clock;
+    }
+
+    @Override
+    public void save(String gameId, Game game) {
+        long id = parseOrThrow(gameId);
+        LongGameMap shard = shardFor(id);
+        game.touch(clock.getAsLong());
+        shard.put(id, game);
+        enforceCap(shard, id);
+    }
+
+    @Override
+    public boolean saveIfAbsent(String gameId, Game game) {
+        long id = parseOrThrow(gameId);
+        LongGameMap shard = shardFor(id);
+        game.touch(clock.getAsLong());
+        if (shard.putIfAbsent(id, game) != null) {
+            return false;
+        }
+        enforceCap(shard, id);
+        return true;
+    }
+
+    @Override
+    public Optional<Game> findById(String gameId) {
+        long id = GameIds.parse(gameId);
+        Game game = id == GameIds.INVALID ? null : shardFor(id).get(id);
+        if (game != null) {
+            game.touch(clock.getAsLong());
+        }
+        return Optional.ofNullable(game);
+    }
+
+    @Override
+    public Game deleteById(String gameId) {
+        long id = GameIds.parse(gameId);
+        return id == GameIds.INVALID ? null : shardFor(id).remove(id);
+    }
+
+    @Override
+    public int count() {
+        int count = 0;
+        for (LongGameMap shard : shards) {
+            count += shard.size();
+        }
+        return count;
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, Game> action) {
+        for (LongGameMap shard : shards) {
+            shard.forEach((id, game) -> action.accept(GameIds.format(id), game));
+        }
+    }
+
+    @Override
+    public void addEvictionListener(BiConsumer<String, Game> listener) {
+        evictionListeners.add(listener);
+    }
+
+    @Override
+    public SessionStoreStatistics getStatistics() {
+        return new SessionStoreStatistics(count(), expiredEvictions.sum(), capacityEvictions.sum(), estimatedBytes);
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Evicts expired sessions and refreshes the memory estimate. Shards are swept one after another over copies of
+     * their entries, so requests keep running and only games being evicted are locked, briefly.
+     */
+    @Scheduled(fixedDelayString = "${rps.sessions.sweep-interval-ms:10000}")
+    public void sweep() {
+        long[] bytes = new long[1];
+        int[] expired = new int[1];
+        for (LongGameMap shard : shards) {
+            long now = clock.getAsLong();
+            shard.forEach((id, game) -> {
+                if (now - game.getLastAccessed() > ttlNanos && evict(shard, id, game)) {
+                    expiredEvictions.increment();
+                    expired[0]++;
+                } else {
+                    bytes[0] += game.estimatedBytes();
+                }
+            });
+        }
+        estimatedBytes = bytes[0];
+        if (expired[0] > 0) {
+            log.info("Evicted {} expired game sessions.", expired[0]);
+        }
+    }
+
+    private static long parseOrThrow(String gameId) {
+        long id = GameIds.parse(gameId);
+        if (id == GameIds.INVALID) {
+            throw new IllegalArgumentException("Invalid game ID: " + gameId);
+        }
+        return id;
+    }
+
+    private void enforceCap(LongGameMap shard, long keep) {
+        while (shard.size() > maxSessionsPerShard) {
+            if (!evictLeastRecentlyUsed(shard, keep)) {
+                break;
+            }
+        }
+    }
+
+    private boolean evictLeastRecentlyUsed(LongGameMap shard, long keep) {
+        long[] victimId = new long[1];
+        Game[] victim = new Game[1];
+        shard.sample(EVICTION_SAMPLE_SIZE, (id, game) -> {
+            if (id != keep && (victim[0] == null || game.getLastAccessed() - victim[0].getLastAccessed() < 0)) {
+                victimId[0] = id;
+                victim[0] = game;
+            }
+        });
+        if (victim[0] == null || !evict(shard, victimId[0], victim[0])) {
+            return false;
+        }
+        capacityEvictions.increment();
+        return true;
+    }
+
+    /**
+     * Removes the game unless a round is in progress, closes it and notifies the listeners, all under the game's lock.
+     * A game that is registered but already closed is being handed off to another node and stays until that completes.
+     */
+    private boolean evict(LongGameMap shard, long gameId, Game game) {
+        ReentrantLock lock = game.getLock();
+        if (!lock.tryLock()) {
+            return false;
+        }
+        try {
+            if (game.isClosed() || !shard.remove(gameId, game)) {
+                return false;
+            }
+            game.close();
+            String id = GameIds.format(gameId);
+            for (BiConsumer<String, Game> listener : evictionListeners) {
+                listener.accept(id, game);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private LongGameMap shardFor(long gameId) {
+        // The maps slot on the high bits of a multiplicative hash, so pick the shard from the low bits of the ID.
+        return shards[(int) (gameId ^ gameId >>> 32) & mask];
+    }
+}
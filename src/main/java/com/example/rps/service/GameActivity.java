@@ -0,0 +1,15 @@
+package com.example.rps.service;
+
+/**
+ * Totals of game activity since startup, counted instead of logging every round.
+ *
+ * @param gamesStarted    Games started.
+ * @param roundsPlayed    Rounds played, single or in batches.
+ * @param gamesTerminated Games terminated by their players; evictions are counted by the session store.
+ */
+public record GameActivity(
+        long gamesStarted,
+        long roundsPlayed,
+        long gamesTerminated
+) {
+}
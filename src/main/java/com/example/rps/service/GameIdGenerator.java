@@ -0,0 +1,11 @@
+package com.example.rps.service;
+
+/**
+ * Chooses the IDs of new games. IDs must be unique among live games and hard to guess, since knowing a game's ID is
+ * enough to play it.
+ */
+@FunctionalInterface
+public interface GameIdGenerator {
+
+    String nextId();
+}
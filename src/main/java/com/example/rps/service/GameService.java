@@ -1,66 +1,377 @@
 package com.example.rps.service;
 
 import com.example.rps.exception.GameNotFoundException;
+import com.example.rps.export.GameArchive;
+import com.example.rps.export.NoOpGameArchive;
+import com.example.rps.metrics.GameMetrics;
 import com.example.rps.model.Game;
 import com.example.rps.model.GameResult;
+import com.example.rps.model.GameStatistics;
 import com.example.rps.model.Move;
+import com.example.rps.model.PackedHistory;
+import com.example.rps.model.PlayedRound;
+import com.example.rps.model.PlayedRounds;
+import com.example.rps.model.Round;
+import com.example.rps.persistence.GameJournal;
+import com.example.rps.persistence.NoOpGameJournal;
+import com.example.rps.repository.GameRepository;
+import com.example.rps.repository.SessionStoreStatistics;
+import com.example.rps.util.LogSampler;
+import com.example.rps.util.PredictionStrategy;
+import com.example.rps.util.PredictionStrategyFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class GameService {
 
     private static final Logger log = LoggerFactory.getLogger(GameService.class);
 
+    private static final double DEFAULT_ROUND_LOG_SAMPLE_RATE = 0.01;
+
     private final MoveService moveService;
-    private final StatisticsService statisticsService;
-    private final Map<String, Game> games = new HashMap<>();
+    private final GameRepository games;
+    private final GameIdGenerator idGenerator;
+    private final PredictionStrategyFactory predictionStrategyFactory;
+    private final GameJournal journal;
+    private final GameArchive archive;
+    private final GameMetrics metrics;
+    private final GlobalStatisticsService globalStatistics;
+    private final LogSampler roundLogSampler;
+
+    private final LongAdder gamesStarted = new LongAdder();
+    private final LongAdder roundsPlayed = new LongAdder();
+    private final LongAdder gamesTerminated = new LongAdder();
+    private GameActivity lastLoggedActivity = new GameActivity(0, 0, 0);
 
-    public GameService(MoveService moveService, StatisticsService statisticsService) {
+    /**
+     * @param roundLogSampleRate Fraction of rounds and batches logged at INFO; the rest are only counted.
+     */
+    @Autowired
+    public GameService(MoveService moveService,
+                       GameRepository games,
+                       GameIdGenerator idGenerator,
+                       PredictionStrategyFactory predictionStrategyFactory,
+                       GameJournal journal,
+                       GameArchive archive,
+                       GameMetrics metrics,
+                       GlobalStatisticsService globalStatistics,
+                       @Value("${rps.logging.round-sample-rate:0.01}") double roundLogSampleRate) {
         this.moveService = moveService;
-        this.statisticsService = statisticsService;
+        this.games = games;
+        this.idGenerator = idGenerator;
+        this.predictionStrategyFactory = predictionStrategyFactory;
+        this.journal = journal;
+        this.archive = archive;
+        this.metrics = metrics;
+        this.globalStatistics = globalStatistics;
+        this.roundLogSampler = new LogSampler(roundLogSampleRate);
+    }
+
+    /**
+     * Creates a service with random game IDs, whose games are not journaled or archived and whose metrics are only
+     * kept in memory.
+     */
+    public GameService(MoveService moveService,
+                       GameRepository games,
+                       PredictionStrategyFactory predictionStrategyFactory) {
+        this(moveService, games, new RandomGameIdGenerator(), predictionStrategyFactory, new NoOpGameJournal(),
+                new NoOpGameArchive(), new GameMetrics(new SimpleMeterRegistry(), games),
+                new GlobalStatisticsService(games), DEFAULT_ROUND_LOG_SAMPLE_RATE);
     }
 
     public String startNewGame() {
-        String gameId = UUID.randomUUID().toString();
-        games.put(gameId, new Game());
+        long start = System.nanoTime();
+        Game game = new Game(predictionStrategyFactory.create());
+        String gameId;
+        long position;
+
+        // Held while saving, so the game cannot be evicted and journaled as ended before its start is journaled.
+        ReentrantLock lock = game.getLock();
+        lock.lock();
+        try {
+            // IDs are random, so one may already name a live game; that game is never replaced.
+            do {
+                gameId = idGenerator.nextId();
+            } while (!games.saveIfAbsent(gameId, game));
+            position = journal.gameStarted(gameId);
+        } finally {
+            lock.unlock();
+        }
+        journal.awaitDurable(position);
+        gamesStarted.increment();
+        metrics.recordStart(System.nanoTime() - start);
         log.info("New game started with ID: {}", gameId);
 
         return gameId;
     }
 
-    public GameResult playRound(String gameId, Move userMove) {
+    /**
+     * @return The round, with the game's statistics right after it, so callers need not look the game up again.
+     */
+    public PlayedRound playRound(String gameId, Move userMove) {
+        long start = System.nanoTime();
+        Game game = getGameOrThrow(gameId);
+        Round round;
+        GameStatistics statistics;
+        long position;
+
+        ReentrantLock lock = game.getLock();
+        lock.lock();
+        try {
+            ensureOpen(gameId, game);
+            round = playLockedRound(game, userMove);
+            position = journal.roundPlayed(gameId, game.getRoundCount() - 1, round);
+            globalStatistics.updateRanking(gameId, game);
+            statistics = game.getStatistics();
+        } finally {
+            lock.unlock();
+        }
+        journal.awaitDurable(position);
+        roundsPlayed.increment();
+        metrics.recordRoundTime(System.nanoTime() - start);
+        if (log.isInfoEnabled() && roundLogSampler.sample()) {
+            log.info("Computer move: {}. Result of the round: {}", round.computerMove(), round.result());
+        }
+
+        return new PlayedRound(round, statistics);
+    }
+
+    /**
+     * Plays the given moves in order as consecutive rounds of one game, with a single lookup and lock acquisition.
+     *
+     * @return The rounds played, in the order of the given moves, with the game's statistics after the last of them.
+     */
+    public PlayedRounds playRounds(String gameId, List<Move> userMoves) {
+        long start = System.nanoTime();
         Game game = getGameOrThrow(gameId);
-        Move computerMove = moveService.generateComputerMove();
+        List<Round> rounds = new ArrayList<>(userMoves.size());
+        GameStatistics statistics;
+        long position = 0;
+
+        ReentrantLock lock = game.getLock();
+        lock.lock();
+        try {
+            ensureOpen(gameId, game);
+            for (Move userMove : userMoves) {
+                Round round = playLockedRound(game, userMove);
+                rounds.add(round);
+                position = journal.roundPlayed(gameId, game.getRoundCount() - 1, round);
+            }
+            globalStatistics.updateRanking(gameId, game);
+            statistics = game.getStatistics();
+        } finally {
+            lock.unlock();
+        }
+        // One wait covers the whole batch: the log is flushed in order.
+        journal.awaitDurable(position);
+        roundsPlayed.add(rounds.size());
+        metrics.recordRoundTime(System.nanoTime() - start);
+        if (log.isInfoEnabled() && roundLogSampler.sample()) {
+            log.info("Played {} rounds in game with ID: {}", rounds.size(), gameId);
+        }
+
+        return new PlayedRounds(rounds, statistics);
+    }
+
+    public Game getGameOrThrow(String gameId) {
+        long start = System.nanoTime();
+        Game game = games.findById(gameId).orElse(null);
+        metrics.recordLookup(System.nanoTime() - start);
+        if (game == null) {
+            throw new GameNotFoundException("Game not found with ID: " + gameId);
+        }
+        return game;
+    }
+
+    public SessionStoreStatistics getSessionStatistics() {
+        return games.getStatistics();
+    }
+
+    public GameActivity getActivity() {
+        return new GameActivity(gamesStarted.sum(), roundsPlayed.sum(), gamesTerminated.sum());
+    }
+
+    /**
+     * Logs how much was played since the last summary, in place of the rounds that were not sampled.
+     */
+    @Scheduled(fixedDelayString = "${rps.logging.summary-interval-ms:60000}")
+    public void logActivity() {
+        GameActivity activity = getActivity();
+        GameActivity last = lastLoggedActivity;
+        if (activity.equals(last)) {
+            return;
+        }
+        log.info("Since the last summary: {} games started, {} rounds played, {} games terminated.",
+                activity.gamesStarted() - last.gamesStarted(),
+                activity.roundsPlayed() - last.roundsPlayed(),
+                activity.gamesTerminated() - last.gamesTerminated());
+        lastLoggedActivity = activity;
+    }
+
+    /**
+     * Guards against a game that was terminated or evicted between the lookup and acquiring its lock.
+     */
+    private void ensureOpen(String gameId, Game game) {
+        if (game.isClosed()) {
+            throw new GameNotFoundException("Game not found with ID: " + gameId);
+        }
+    }
+
+    private Round playLockedRound(Game game, Move userMove) {
+        long start = System.nanoTime();
+        PredictionStrategy predictor = game.getPredictor();
+        Move predictedMove = predictor.predict();
+        metrics.recordPrediction(System.nanoTime() - start);
+
+        Move computerMove = moveService.generateComputerMove(predictedMove, predictor.randomMoveRate(),
+                ThreadLocalRandom.current());
         GameResult result = moveService.determineResult(userMove, computerMove);
-        log.info("Computer move: {}. Result of the round: {}", computerMove, result);
 
-        statisticsService.updateStatistics(gameId, result);
         game.addMove(userMove, computerMove, result);
-        moveService.recordMove(userMove);
+        metrics.recordRound(userMove, predictedMove, result);
+        globalStatistics.recordRound(userMove, computerMove, result);
 
-        return result;
+        return new Round(userMove, computerMove, result);
     }
 
-    public Game getGameOrThrow(String gameId) {
-        return Optional.ofNullable(games.get(gameId))
-                .orElseThrow(() -> new GameNotFoundException("Game not found with ID: " + gameId));
+    /**
+     * Closes a game so that another node can take it over, without losing a round in between. The game stays
+     * registered and journaled until {@link #gamesHandedOff} confirms the handoff, so a crash meanwhile recovers it
+     * here; until then requests for it answer as for a missing game and it is never evicted. If the handoff fails,
+     * {@link #reclaimGame} opens it again here.
+     *
+     * @return A copy of the game's history, or {@code null} if no open game is registered under that ID.
+     */
+    public PackedHistory releaseGame(String gameId) {
+        Game game = games.findById(gameId).orElse(null);
+        if (game == null) {
+            return null;
+        }
+        ReentrantLock lock = game.getLock();
+        lock.lock();
+        try {
+            if (game.isClosed()) {
+                return null;
+            }
+            game.close();
+            globalStatistics.gameEnded(game);
+            return game.snapshot().history();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes released games once their new owner has confirmed it holds them. Journaled as ended, like terminated
+     * games, but not counted as terminated.
+     */
+    public void gamesHandedOff(Collection<String> gameIds) {
+        long position = 0;
+        for (String gameId : gameIds) {
+            Game game = games.deleteById(gameId);
+            if (game == null) {
+                continue;
+            }
+            ReentrantLock lock = game.getLock();
+            lock.lock();
+            try {
+                position = journal.gameEnded(gameId);
+            } finally {
+                lock.unlock();
+            }
+        }
+        journal.awaitDurable(position);
+    }
+
+    /**
+     * Opens a released game here again, when no other node took it over. The journal still holds the game, so
+     * nothing is journaled.
+     */
+    public void reclaimGame(String gameId, PackedHistory history) {
+        Game game = Game.restore(predictionStrategyFactory.create(), history);
+        ReentrantLock lock = game.getLock();
+        lock.lock();
+        try {
+            games.save(gameId, game);
+            globalStatistics.updateRanking(gameId, game);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Registers a game released by another node under its existing ID, with its history replayed into a fresh
+     * predictor. The rounds are journaled again here, since the other node's journal drops the game once it is
+     * handed off. A game this node already holds is kept as it is: it may have played rounds since.
+     *
+     * @return Whether the game was adopted.
+     */
+    public boolean adoptGame(String gameId, PackedHistory history) {
+        Game game = Game.restore(predictionStrategyFactory.create(), history);
+        long position;
+
+        // Held while saving, so the game cannot be evicted and journaled as ended before its rounds are journaled.
+        ReentrantLock lock = game.getLock();
+        lock.lock();
+        try {
+            if (!games.saveIfAbsent(gameId, game)) {
+                return false;
+            }
+            position = journal.gameStarted(gameId);
+            for (int i = 0; i < history.size(); i++) {
+                position = journal.roundPlayed(gameId, i,
+                        new Round(history.userMoveAt(i), history.computerMoveAt(i), history.resultAt(i)));
+            }
+            globalStatistics.updateRanking(gameId, game);
+        } finally {
+            lock.unlock();
+        }
+        journal.awaitDurable(position);
+        return true;
     }
 
     public void terminateGame(String gameId) {
-        if (games.containsKey(gameId)) {
-            games.remove(gameId);
-            statisticsService.initializeStatistics(gameId);
-            log.info("Game with ID: {} terminated successfully.", gameId);
-        } else {
+        long start = System.nanoTime();
+        Game game = games.findById(gameId).orElse(null);
+        boolean ended = false;
+        long position = 0;
+        if (game != null) {
+            ReentrantLock lock = game.getLock();
+            lock.lock();
+            try {
+                // A closed game was evicted meanwhile or is being handed off, and is not this node's to end.
+                if (!game.isClosed()) {
+                    games.deleteById(gameId);
+                    game.close();
+                    position = journal.gameEnded(gameId);
+                    globalStatistics.gameEnded(game);
+                    ended = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (!ended) {
             log.warn("Attempted to terminate a non-existent game with ID: {}", gameId);
             throw new GameNotFoundException("Game not found with ID: " + gameId);
         }
+        journal.awaitDurable(position);
+        archive.gameEnded(gameId, game.snapshot().history());
+        gamesTerminated.increment();
+        metrics.recordTerminate(System.nanoTime() - start);
+        log.info("Game with ID: {} terminated successfully.", gameId);
     }
 }
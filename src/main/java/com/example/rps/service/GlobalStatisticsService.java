@@ -0,0 +1,111 @@
+package com.example.rps.service;
+
+import com.example.rps.model.Game;
+import com.example.rps.model.GameResult;
+import com.example.rps.model.GlobalStatistics;
+import com.example.rps.model.Move;
+import com.example.rps.repository.GameRepository;
+import com.example.rps.util.GameIds;
+import com.example.rps.util.Leaderboard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cross-game statistics, maintained incrementally as rounds are played so that reading them never visits the games.
+ * Counters are {@link LongAdder}s, which stripe contended updates over per-thread cells, and the top games are kept
+ * in a bounded {@link Leaderboard}.
+ */
+@Service
+public class GlobalStatisticsService {
+
+    private static final int DEFAULT_TOP_GAMES = 10;
+    private static final int DEFAULT_MIN_ROUNDS = 20;
+
+    private final LongAdder[] resultCounts;
+    private final LongAdder[] userMoveCounts;
+    private final LongAdder[] computerMoveCounts;
+    private final Leaderboard<Game> leaderboard;
+
+    /**
+     * @param topGames  Number of games on the leaderboard.
+     * @param minRounds Rounds a game must have played to be ranked.
+     */
+    @Autowired
+    public GlobalStatisticsService(GameRepository games,
+                                   @Value("${rps.stats.top-games:10}") int topGames,
+                                   @Value("${rps.stats.top-games-min-rounds:20}") int minRounds) {
+        this.resultCounts = adders(GameResult.values().length);
+        this.userMoveCounts = adders(Move.COUNT);
+        this.computerMoveCounts = adders(Move.COUNT);
+        this.leaderboard = new Leaderboard<>(topGames, minRounds);
+        games.addEvictionListener((gameId, game) -> gameEnded(game));
+    }
+
+    public GlobalStatisticsService(GameRepository games) {
+        this(games, DEFAULT_TOP_GAMES, DEFAULT_MIN_ROUNDS);
+    }
+
+    /**
+     * Counts one round. Must be called with the game's lock held, after the round was added to the game.
+     */
+    public void recordRound(Move userMove, Move computerMove, GameResult result) {
+        resultCounts[result.ordinal()].increment();
+        userMoveCounts[userMove.ordinal()].increment();
+        computerMoveCounts[computerMove.ordinal()].increment();
+    }
+
+    /**
+     * Re-ranks a game after its latest rounds. Must be called with the game's lock held.
+     */
+    public void updateRanking(String gameId, Game game) {
+        leaderboard.update(gameId, game, game.getRoundCount(), game.getResultCount(GameResult.WIN));
+    }
+
+    /**
+     * Removes a terminated or evicted game from the leaderboard; its rounds stay in the totals.
+     */
+    public void gameEnded(Game game) {
+        leaderboard.remove(game);
+    }
+
+    /**
+     * Reads the aggregates in time independent of the number of games. The counters are read one after another
+     * while rounds go on, so they may differ by the rounds played during the read.
+     */
+    public GlobalStatistics getGlobalStatistics() {
+        long wins = resultCounts[GameResult.WIN.ordinal()].sum();
+        long losses = resultCounts[GameResult.LOSE.ordinal()].sum();
+        long draws = resultCounts[GameResult.DRAW.ordinal()].sum();
+
+        List<GlobalStatistics.RankedGame> topGames = new ArrayList<>();
+        for (Leaderboard.Entry<Game> entry : leaderboard.top()) {
+            topGames.add(new GlobalStatistics.RankedGame(topGames.size() + 1, GameIds.handle(entry.gameId()),
+                    entry.rounds(), entry.wins(), entry.winRate()));
+        }
+        return new GlobalStatistics(wins + losses + draws, wins, losses, draws,
+                moveCounts(userMoveCounts), moveCounts(computerMoveCounts), topGames);
+    }
+
+    private static Map<Move, Long> moveCounts(LongAdder[] counts) {
+        Map<Move, Long> moves = new EnumMap<>(Move.class);
+        for (int i = 0; i < counts.length; i++) {
+            moves.put(Move.valueAt(i), counts[i].sum());
+        }
+        return moves;
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
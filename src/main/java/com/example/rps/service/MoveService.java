@@ -2,46 +2,47 @@ package com.example.rps.service;
 
 import com.example.rps.model.GameResult;
 import com.example.rps.model.Move;
-import com.example.rps.util.MovePredictor;
+import com.example.rps.util.PredictionStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 @Service
 public class MoveService {
 
     private static final Logger log = LoggerFactory.getLogger(MoveService.class);
 
-    private final MovePredictor movePredictor;
-    private final Random random = new Random();
-
-    public MoveService(MovePredictor movePredictor) {
-        this.movePredictor = movePredictor;
-    }
-
-    public Move generateComputerMove() {
-        Move predictedMove = movePredictor.predict();
-        if (predictedMove == null || random.nextDouble() < 0.2) {
-            return Move.values()[random.nextInt(Move.values().length)];
+    /**
+     * Counters the predicted user move, or plays a random move if there is no prediction and at the given rate.
+     *
+     * @param predictedMove  The user's predicted next move, or {@code null} if there is none yet.
+     * @param randomMoveRate The predictor's {@link PredictionStrategy#randomMoveRate()}.
+     * @param random         Source of the random moves; simulations pass a seeded one.
+     */
+    public Move generateComputerMove(Move predictedMove, double randomMoveRate, RandomGenerator random) {
+        if (predictedMove == null || randomMoveRate > 0 && random.nextDouble() < randomMoveRate) {
+            return Move.valueAt(random.nextInt(Move.COUNT));
         }
-        log.info("Move chosen based on prediction: {}", predictedMove);
-        return predictedMove;
+        Move counterMove = predictedMove.counter();
+        // Runs under the game's lock, so it must not block on log I/O.
+        log.debug("Predicted user move: {}. Move chosen based on prediction: {}", predictedMove, counterMove);
+        return counterMove;
     }
 
     public GameResult determineResult(Move userMove, Move computerMove) {
-        if (userMove == computerMove) {
-            return GameResult.DRAW;
-        }
-        return userMove.beats(computerMove) ? GameResult.WIN : GameResult.LOSE;
-    }
-
-    public void recordMove(Move move) {
-        movePredictor.recordMove(move);
+        return GameResult.of(userMove, computerMove);
     }
 
     public <E extends Enum<E>> E convertToEnum(String value, Class<E> enumType) {
+        if (enumType == Move.class) {
+            Move move = Move.parse(value);
+            if (move == null) {
+                throw new IllegalArgumentException("Invalid enum value: " + value);
+            }
+            return enumType.cast(move);
+        }
         try {
             return Enum.valueOf(enumType, value.toUpperCase());
         } catch (IllegalArgumentException e) {
@@ -0,0 +1,44 @@
+package com.example.rps.service;
+
+import com.example.rps.util.GameIds;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * IDs of 64 bits from a cryptographically strong generator, used while the instance runs on its own. Every thread
+ * has its own DRBG, seeded once from the system on its first ID, so drawing an ID never contends on a shared
+ * {@link SecureRandom}. IDs are random rather than unique: the service saves a new game only under an ID no live
+ * game has.
+ */
+@Component
+@ConditionalOnProperty(name = "rps.cluster.enabled", havingValue = "false", matchIfMissing = true)
+public class RandomGameIdGenerator implements GameIdGenerator {
+
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(RandomGameIdGenerator::newRandom);
+
+    @Override
+    public String nextId() {
+        return GameIds.format(nextLongId());
+    }
+
+    public long nextLongId() {
+        SecureRandom random = RANDOM.get();
+        while (true) {
+            long id = random.nextLong();
+            if (id != GameIds.INVALID) {
+                return id;
+            }
+        }
+    }
+
+    private static SecureRandom newRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No DRBG available for game IDs.", e);
+        }
+    }
+}
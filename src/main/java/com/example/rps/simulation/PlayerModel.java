@@ -0,0 +1,133 @@
+package com.example.rps.simulation;
+
+import com.example.rps.model.GameResult;
+import com.example.rps.model.Move;
+
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * Kinds of synthetic players. Each match creates a fresh player whose parameters, such as the favourite move of a
+ * biased player, are drawn from the match's generator.
+ */
+public enum PlayerModel {
+
+    /**
+     * Plays every move with equal probability; no strategy can do better than break even against it.
+     */
+    RANDOM {
+        @Override
+        public SyntheticPlayer create(RandomGenerator random) {
+            return r -> Move.valueAt(r.nextInt(Move.COUNT));
+        }
+    },
+
+    /**
+     * Plays one favourite move half of the time and the other two a quarter of the time each.
+     */
+    BIASED {
+        @Override
+        public SyntheticPlayer create(RandomGenerator random) {
+            Move favourite = Move.valueAt(random.nextInt(Move.COUNT));
+            return r -> r.nextDouble() < 0.5 ? favourite : Move.valueAt((favourite.ordinal() + 1 + r.nextInt(2)) % Move.COUNT);
+        }
+    },
+
+    /**
+     * Cycles rock, paper, scissors from a random start, playing a random move instead one time in ten.
+     */
+    CYCLIC {
+        @Override
+        public SyntheticPlayer create(RandomGenerator random) {
+            int[] previous = {random.nextInt(Move.COUNT)};
+            return r -> {
+                int next = r.nextDouble() < 0.1 ? r.nextInt(Move.COUNT) : (previous[0] + 1) % Move.COUNT;
+                previous[0] = next;
+                return Move.valueAt(next);
+            };
+        }
+    },
+
+    /**
+     * Follows a first-order habit: after each move it prefers one particular move, drawn per player, 70% of the time.
+     */
+    MARKOV {
+        @Override
+        public SyntheticPlayer create(RandomGenerator random) {
+            int[] preferred = new int[Move.COUNT];
+            for (int i = 0; i < Move.COUNT; i++) {
+                preferred[i] = random.nextInt(Move.COUNT);
+            }
+            int[] previous = {random.nextInt(Move.COUNT)};
+            return r -> {
+                int next = r.nextDouble() < 0.7 ? preferred[previous[0]] : r.nextInt(Move.COUNT);
+                previous[0] = next;
+                return Move.valueAt(next);
+            };
+        }
+    },
+
+    /**
+     * Keeps a winning move, and after losing switches to the move that beats the computer's, as many people do;
+     * draws and one round in ten are played at random.
+     */
+    WIN_STAY_LOSE_SHIFT {
+        @Override
+        public SyntheticPlayer create(RandomGenerator random) {
+            return new SyntheticPlayer() {
+
+                private Move next = Move.valueAt(random.nextInt(Move.COUNT));
+
+                @Override
+                public Move nextMove(RandomGenerator r) {
+                    return r.nextDouble() < 0.1 ? Move.valueAt(r.nextInt(Move.COUNT)) : next;
+                }
+
+                @Override
+                public void observe(Move userMove, Move computerMove, GameResult result) {
+                    next = switch (result) {
+                        case WIN -> userMove;
+                        case LOSE -> computerMove.counter();
+                        case DRAW -> Move.valueAt(random.nextInt(Move.COUNT));
+                    };
+                }
+            };
+        }
+    },
+
+    /**
+     * Plays the move that beats the computer's previous move, playing a random move instead one time in ten.
+     */
+    COUNTER {
+        @Override
+        public SyntheticPlayer create(RandomGenerator random) {
+            return new SyntheticPlayer() {
+
+                private Move next = Move.valueAt(random.nextInt(Move.COUNT));
+
+                @Override
+                public Move nextMove(RandomGenerator r) {
+                    return r.nextDouble() < 0.1 ? Move.valueAt(r.nextInt(Move.COUNT)) : next;
+                }
+
+                @Override
+                public void observe(Move userMove, Move computerMove, GameResult result) {
+                    next = computerMove.counter();
+                }
+            };
+        }
+    };
+
+    public abstract SyntheticPlayer create(RandomGenerator random);
+
+    /**
+     * Case-insensitive lookup by name.
+     */
+    public static PlayerModel parse(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown player model: " + name);
+        }
+    }
+}
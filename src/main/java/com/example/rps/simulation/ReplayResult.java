@@ -0,0 +1,38 @@
+package com.example.rps.simulation;
+
+/**
+ * Outcome of one prediction strategy replayed against the recorded user moves of a dump, from the strategy's side.
+ *
+ * @param strategy Strategy specification, or {@link ReplayScorer#RECORDED} for the moves the server actually played.
+ * @param wins     Rounds the strategy won.
+ * @param draws    Rounds drawn.
+ * @param losses   Rounds the strategy lost.
+ */
+public record ReplayResult(
+        String strategy,
+        long wins,
+        long draws,
+        long losses
+) {
+
+    public long rounds() {
+        return wins + draws + losses;
+    }
+
+    public double winRate() {
+        return rate(wins);
+    }
+
+    public double drawRate() {
+        return rate(draws);
+    }
+
+    public double lossRate() {
+        return rate(losses);
+    }
+
+    private double rate(long count) {
+        long rounds = rounds();
+        return rounds == 0 ? 0 : (double) count / rounds;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.rps.simulation;
+
+import com.example.rps.export.DumpedGame;
+import com.example.rps.export.HistoryDumpReader;
+import com.example.rps.model.GameResult;
+import com.example.rps.model.Move;
+import com.example.rps.service.MoveService;
+import com.example.rps.util.PredictionStrategy;
+import com.example.rps.util.PredictionStrategyFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Re-scores prediction strategies offline against the user moves recorded in a dump.
+ * <p>
+ * Each game is replayed once per strategy with a fresh predictor, choosing the computer's moves through
+ * {@link MoveService} exactly like a game does. Users reacted to the moves they actually saw, not to the replayed
+ * ones, so the scores estimate how well a strategy reads real players rather than how a live game would have gone.
+ * Games are read and scored one at a time, so a dump of any size is scored in the memory of its largest game.
+ */
+public class ReplayScorer {
+
+    /**
+     * Name of the baseline result: the results the server recorded.
+     */
+    public static final String RECORDED = "recorded";
+
+    private final MoveService moveService;
+
+    public ReplayScorer(MoveService moveService) {
+        this.moveService = moveService;
+    }
+
+    /**
+     * Reads the rest of the dump after its header.
+     *
+     * @param strategies Strategy specifications: {@code frequency}, {@code markov:<order>} or {@code ensemble}.
+     * @return The recorded baseline, then one result per strategy in the given order.
+     */
+    public List<ReplayResult> score(long seed, List<String> strategies, HistoryDumpReader reader) throws IOException {
+        List<PredictionStrategyFactory> factories = new ArrayList<>(strategies.size());
+        List<SplittableRandom> randoms = new ArrayList<>(strategies.size());
+        SplittableRandom root = new SplittableRandom(seed);
+        for (String strategy : strategies) {
+            factories.add(TournamentSimulator.factoryFor(strategy));
+            randoms.add(root.split());
+        }
+        // Indexed by strategy, then by result for the user; the recorded baseline comes first.
+        long[] counts = new long[(strategies.size() + 1) * GameResult.values().length];
+
+        DumpedGame game;
+        while ((game = reader.next()) != null) {
+            for (int round = 0; round < game.rounds(); round++) {
+                counts[game.resultAt(round).ordinal()]++;
+            }
+            for (int i = 0; i < factories.size(); i++) {
+                replay(game, factories.get(i).create(randoms.get(i).nextLong()), randoms.get(i), counts, (i + 1) * GameResult.values().length);
+            }
+        }
+
+        List<ReplayResult> results = new ArrayList<>(strategies.size() + 1);
+        for (int i = 0; i <= strategies.size(); i++) {
+            int at = i * GameResult.values().length;
+            // Counts are kept from the user's side; the strategy wins the rounds the user loses.
+            results.add(new ReplayResult(i == 0 ? RECORDED : strategies.get(i - 1),
+                    counts[at + GameResult.LOSE.ordinal()],
+                    counts[at + GameResult.DRAW.ordinal()],
+                    counts[at + GameResult.WIN.ordinal()]));
+        }
+        return results;
+    }
+
+    private void replay(DumpedGame game, PredictionStrategy predictor, SplittableRandom random, long[] counts, int at) {
+        for (int round = 0; round < game.rounds(); round++) {
+            Move userMove = game.userMoveAt(round);
+            Move computerMove = moveService.generateComputerMove(predictor.predict(), predictor.randomMoveRate(), random);
+            GameResult result = moveService.determineResult(userMove, computerMove);
+            counts[at + result.ordinal()]++;
+            predictor.recordRound(userMove, computerMove, result);
+        }
+    }
+}
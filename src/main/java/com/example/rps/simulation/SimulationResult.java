@@ -0,0 +1,40 @@
+package com.example.rps.simulation;
+
+/**
+ * Outcome of every match between one prediction strategy and one player model, from the strategy's side.
+ *
+ * @param strategy Strategy specification, e.g. {@code markov:2}.
+ * @param player   The synthetic player model.
+ * @param wins     Rounds the strategy won.
+ * @param draws    Rounds drawn.
+ * @param losses   Rounds the strategy lost.
+ */
+public record SimulationResult(
+        String strategy,
+        PlayerModel player,
+        long wins,
+        long draws,
+        long losses
+) {
+
+    public long rounds() {
+        return wins + draws + losses;
+    }
+
+    public double winRate() {
+        return rate(wins);
+    }
+
+    public double drawRate() {
+        return rate(draws);
+    }
+
+    public double lossRate() {
+        return rate(losses);
+    }
+
+    private double rate(long count) {
+        long rounds = rounds();
+        return rounds == 0 ? 0 : (double) count / rounds;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.rps.simulation;
+
+import com.example.rps.model.GameResult;
+import com.example.rps.model.Move;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A scripted opponent for the prediction strategies. An instance plays a single match and keeps its own state.
+ */
+@FunctionalInterface
+public interface SyntheticPlayer {
+
+    /**
+     * @param random Generator of the match, so a seeded match always plays the same moves.
+     */
+    Move nextMove(RandomGenerator random);
+
+    /**
+     * Sees the outcome of the round just played, for players that react to it.
+     */
+    default void observe(Move userMove, Move computerMove, GameResult result) {
+    }
+}
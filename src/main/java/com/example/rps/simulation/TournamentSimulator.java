@@ -0,0 +1,150 @@
+package com.example.rps.simulation;
+
+import com.example.rps.model.GameResult;
+import com.example.rps.model.Move;
+import com.example.rps.service.MoveService;
+import com.example.rps.util.PredictionStrategy;
+import com.example.rps.util.PredictionStrategyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays prediction strategies against synthetic players in process, without the web or session layers.
+ * <p>
+ * Every strategy plays {@code matches} matches of {@code rounds} rounds against every player model, choosing its
+ * moves through {@link MoveService} exactly like a game does. The matches are split in halves recursively on a
+ * {@link ForkJoinPool}, and every split also splits the {@link SplittableRandom} of the task. Because the split tree
+ * depends only on the number of matches, the results depend only on the seed and the configuration, never on the
+ * number of threads or on scheduling.
+ */
+public class TournamentSimulator {
+
+    /**
+     * Tasks with at most this many matches are played sequentially.
+     */
+    private static final int MATCHES_PER_TASK = 8;
+
+    private final MoveService moveService;
+    private final ForkJoinPool pool;
+
+    public TournamentSimulator(MoveService moveService, ForkJoinPool pool) {
+        this.moveService = moveService;
+        this.pool = pool;
+    }
+
+    /**
+     * @param strategies Strategy specifications: {@code frequency}, {@code markov:<order>} or {@code ensemble}.
+     * @param players    Player models each strategy plays against.
+     * @param matches    Matches per pairing of a strategy and a player model.
+     * @param rounds     Rounds per match; every match starts with a fresh predictor and player.
+     * @return One result per pairing, strategies first, in the given order.
+     */
+    public List<SimulationResult> run(long seed, List<String> strategies, List<PlayerModel> players,
+                                      int matches, int rounds) {
+        if (matches < 1 || rounds < 1) {
+            throw new IllegalArgumentException("Matches and rounds must be positive: " + matches + ", " + rounds);
+        }
+        List<Pairing> pairings = new ArrayList<>();
+        for (String strategy : strategies) {
+            PredictionStrategyFactory factory = factoryFor(strategy);
+            for (PlayerModel player : players) {
+                pairings.add(new Pairing(strategy, factory, player));
+            }
+        }
+
+        long[] counts = pool.invoke(new MatchTask(pairings, matches, rounds,
+                0, (long) pairings.size() * matches, new SplittableRandom(seed)));
+
+        List<SimulationResult> results = new ArrayList<>(pairings.size());
+        for (int i = 0; i < pairings.size(); i++) {
+            Pairing pairing = pairings.get(i);
+            int at = i * GameResult.values().length;
+            // Counts are kept from the user's side; the strategy wins the rounds the user loses.
+            results.add(new SimulationResult(pairing.strategy(), pairing.player(),
+                    counts[at + GameResult.LOSE.ordinal()],
+                    counts[at + GameResult.DRAW.ordinal()],
+                    counts[at + GameResult.WIN.ordinal()]));
+        }
+        return results;
+    }
+
+    /**
+     * Parses a strategy specification such as {@code frequency}, {@code markov}, {@code markov:3} or {@code ensemble}.
+     */
+    public static PredictionStrategyFactory factoryFor(String strategy) {
+        String[] parts = strategy.trim().split(":", 2);
+        try {
+            int order = parts.length == 2 ? Integer.parseInt(parts[1]) : 2;
+            return new PredictionStrategyFactory(parts[0], order);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid strategy: " + strategy, e);
+        }
+    }
+
+    private record Pairing(String strategy, PredictionStrategyFactory factory, PlayerModel player) {
+    }
+
+    /**
+     * Plays the matches numbered {@code from} to {@code to}, pairing-major, and returns the result counts of every
+     * pairing in one flat array.
+     */
+    private final class MatchTask extends RecursiveTask<long[]> {
+
+        private final List<Pairing> pairings;
+        private final int matches;
+        private final int rounds;
+        private final long from;
+        private final long to;
+        private final SplittableRandom random;
+
+        private MatchTask(List<Pairing> pairings, int matches, int rounds, long from, long to, SplittableRandom random) {
+            this.pairings = pairings;
+            this.matches = matches;
+            this.rounds = rounds;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= MATCHES_PER_TASK) {
+                long[] counts = new long[pairings.size() * GameResult.values().length];
+                for (long match = from; match < to; match++) {
+                    playMatch((int) (match / matches), random.split(), counts);
+                }
+                return counts;
+            }
+            long middle = (from + to) >>> 1;
+            MatchTask left = new MatchTask(pairings, matches, rounds, from, middle, random.split());
+            MatchTask right = new MatchTask(pairings, matches, rounds, middle, to, random);
+            left.fork();
+            long[] counts = right.compute();
+            long[] leftCounts = left.join();
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += leftCounts[i];
+            }
+            return counts;
+        }
+
+        private void playMatch(int pairingIndex, SplittableRandom matchRandom, long[] counts) {
+            Pairing pairing = pairings.get(pairingIndex);
+            PredictionStrategy predictor = pairing.factory().create(matchRandom.nextLong());
+            SyntheticPlayer player = pairing.player().create(matchRandom);
+            int at = pairingIndex * GameResult.values().length;
+            for (int round = 0; round < rounds; round++) {
+                Move computerMove = moveService.generateComputerMove(predictor.predict(), predictor.randomMoveRate(),
+                        matchRandom);
+                Move userMove = player.nextMove(matchRandom);
+                GameResult result = moveService.determineResult(userMove, computerMove);
+                counts[at + result.ordinal()]++;
+                predictor.recordRound(userMove, computerMove, result);
+                player.observe(userMove, computerMove, result);
+            }
+        }
+    }
+}
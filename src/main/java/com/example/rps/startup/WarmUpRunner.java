@@ -0,0 +1,81 @@
+package com.example.rps.startup;
+
+import com.example.rps.export.NoOpGameArchive;
+import com.example.rps.metrics.GameMetrics;
+import com.example.rps.model.Move;
+import com.example.rps.persistence.NoOpGameJournal;
+import com.example.rps.repository.ShardedGameRepository;
+import com.example.rps.service.GameService;
+import com.example.rps.service.GlobalStatisticsService;
+import com.example.rps.service.MoveService;
+import com.example.rps.service.RandomGameIdGenerator;
+import com.example.rps.util.PredictionStrategyFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.NativeDetector;
+import org.springframework.stereotype.Component;
+
+import java.util.SplittableRandom;
+
+/**
+ * Plays rounds through a private {@link GameService} at startup, so the round path is already JIT-compiled when the
+ * first real games arrive.
+ * <p>
+ * Spring Boot reports the application ready ({@code /actuator/health/readiness}) only once its runners have returned,
+ * so instances behind a readiness probe get no traffic until the warm-up is done. The private service shares the move
+ * service and the prediction strategy factory with the real one, but has its own store, metrics and statistics and
+ * neither journals nor archives, so warm-up games are never visible to clients. A native image is compiled ahead of
+ * time and skips the warm-up.
+ */
+@Component
+@ConditionalOnProperty(name = "rps.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    private static final int ROUNDS_PER_GAME = 1000;
+
+    private final MoveService moveService;
+    private final PredictionStrategyFactory predictionStrategyFactory;
+    private final int rounds;
+
+    /**
+     * @param rounds Rounds to play, in games of {@value #ROUNDS_PER_GAME} rounds.
+     */
+    public WarmUpRunner(MoveService moveService,
+                        PredictionStrategyFactory predictionStrategyFactory,
+                        @Value("${rps.warmup.rounds:20000}") int rounds) {
+        this.moveService = moveService;
+        this.predictionStrategyFactory = predictionStrategyFactory;
+        this.rounds = rounds;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (NativeDetector.inNativeImage() || rounds <= 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        ShardedGameRepository games = new ShardedGameRepository(1);
+        GameService gameService = new GameService(moveService, games, new RandomGameIdGenerator(),
+                predictionStrategyFactory, new NoOpGameJournal(), new NoOpGameArchive(),
+                new GameMetrics(new SimpleMeterRegistry(), games), new GlobalStatisticsService(games), 0);
+
+        // Fixed moves, so every start does the same work.
+        SplittableRandom random = new SplittableRandom(42);
+        String gameId = null;
+        for (int round = 0; round < rounds; round++) {
+            // Few games, as every start is logged; the private store is dropped afterwards.
+            if (round % ROUNDS_PER_GAME == 0) {
+                gameId = gameService.startNewGame();
+            }
+            gameService.playRound(gameId, Move.valueAt(random.nextInt(Move.COUNT)));
+        }
+        log.info("Warmed up the round path with {} rounds in {} ms.", rounds, (System.nanoTime() - start) / 1_000_000);
+    }
+}
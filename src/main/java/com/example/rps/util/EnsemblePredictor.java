@@ -0,0 +1,157 @@
+package com.example.rps.util;
+
+import com.example.rps.model.GameResult;
+import com.example.rps.model.Move;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Chooses among several cheap predictors online, per game, with the Hedge algorithm.
+ * <p>
+ * Every expert is offered as three arms: its prediction as is, and rotated one or two steps along the rock, paper,
+ * scissors cycle, which beats players who anticipate the expert themselves. A last arm predicts nothing, so the
+ * computer plays a random move; it is the ensemble's own exploration and replaces the fixed random rate of
+ * {@code MoveService}. Since the player's move reveals how every arm would have fared, all arms are scored after
+ * each round rather than only the one that was played: an arm's weight is multiplied by {@code e} to the power of
+ * the learning rate if countering its prediction would have won, and divided by it if it would have lost. A small
+ * share of the total weight is then spread over all arms, so an arm that failed for a while can recover quickly
+ * when the player changes. Each round, one arm is drawn in proportion to the weights.
+ * <p>
+ * Recording and predicting are constant time and allocation-free: a round costs one update and one prediction per
+ * expert, and a pass over the {@value #ARMS} weights.
+ */
+public class EnsemblePredictor implements PredictionStrategy {
+
+    private static final int EXPERTS = 5;
+    private static final int ARMS = EXPERTS * Move.COUNT + 1;
+    private static final int RANDOM_ARM = ARMS - 1;
+
+    private static final double LEARNING_RATE = 0.3;
+
+    /**
+     * Share of the total weight spread evenly over all arms after every round.
+     */
+    private static final double SHARE = 0.005;
+
+    /**
+     * Weight factors of an expert's three arms, one row for each number of steps the player's move is ahead of the
+     * expert's prediction. Countering an arm's move wins if the player made it, draws against its counter and loses
+     * to the remaining move. A table rather than branches, since the outcomes are as hard to predict for the CPU as
+     * the player is.
+     */
+    private static final double[] FACTORS = new double[Move.COUNT * Move.COUNT];
+
+    static {
+        double[] byOutcome = {Math.exp(LEARNING_RATE), 1, Math.exp(-LEARNING_RATE)};
+        for (int ahead = 0; ahead < Move.COUNT; ahead++) {
+            for (int shift = 0; shift < Move.COUNT; shift++) {
+                FACTORS[ahead * Move.COUNT + shift] = byOutcome[(ahead - shift + Move.COUNT) % Move.COUNT];
+            }
+        }
+    }
+
+    private final PredictionStrategy[] experts = {
+            new MovePredictor(),
+            new LastMovePredictor(),
+            new WinStayLoseShiftPredictor(),
+            new MarkovPredictor(2),
+            new PatternPredictor(2)
+    };
+    private final double[] weights = new double[ARMS];
+
+    /**
+     * What each expert predicts for the next round, refreshed once the experts have learned a round.
+     */
+    private final Move[] predictions = new Move[EXPERTS];
+    private final SplittableRandom random;
+
+    public EnsemblePredictor(long seed) {
+        this.random = new SplittableRandom(seed);
+        Arrays.fill(weights, 1.0 / ARMS);
+    }
+
+    /**
+     * Without the computer's move the experts that learn from whole rounds skip the round; the arms are still scored.
+     */
+    @Override
+    public void recordMove(Move move) {
+        update(move);
+        for (int expert = 0; expert < EXPERTS; expert++) {
+            experts[expert].recordMove(move);
+            predictions[expert] = experts[expert].predict();
+        }
+    }
+
+    @Override
+    public void recordRound(Move userMove, Move computerMove, GameResult result) {
+        update(userMove);
+        for (int expert = 0; expert < EXPERTS; expert++) {
+            experts[expert].recordRound(userMove, computerMove, result);
+            predictions[expert] = experts[expert].predict();
+        }
+    }
+
+    /**
+     * Draws an arm in proportion to the weights.
+     *
+     * @return The arm's prediction, or {@code null} for the random arm and for experts without a prediction yet.
+     */
+    @Override
+    public Move predict() {
+        double target = random.nextDouble();
+        int arm = 0;
+        double sum = weights[0];
+        while (sum <= target && arm < RANDOM_ARM) {
+            sum += weights[++arm];
+        }
+        if (arm == RANDOM_ARM) {
+            return null;
+        }
+        Move prediction = predictions[arm / Move.COUNT];
+        return prediction == null ? null : Move.valueAt((prediction.ordinal() + arm % Move.COUNT) % Move.COUNT);
+    }
+
+    /**
+     * The random arm randomizes the computer's moves, so no further random moves are needed.
+     */
+    @Override
+    public double randomMoveRate() {
+        return 0;
+    }
+
+    @Override
+    public long estimatedBytes() {
+        long bytes = 32L + 16L + EXPERTS * 4L + 16L + ARMS * 8L + 16L + EXPERTS * 4L + 32L;
+        for (PredictionStrategy expert : experts) {
+            bytes += expert.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Scores every arm against the player's move and renormalizes the weights.
+     */
+    private void update(Move userMove) {
+        int user = userMove.ordinal();
+        double total = weights[RANDOM_ARM];
+        for (int expert = 0; expert < EXPERTS; expert++) {
+            Move prediction = predictions[expert];
+            int arm = expert * Move.COUNT;
+            if (prediction == null) {
+                total += weights[arm] + weights[arm + 1] + weights[arm + 2];
+                continue;
+            }
+            int row = (user - prediction.ordinal() + Move.COUNT) % Move.COUNT * Move.COUNT;
+            weights[arm] *= FACTORS[row];
+            weights[arm + 1] *= FACTORS[row + 1];
+            weights[arm + 2] *= FACTORS[row + 2];
+            total += weights[arm] + weights[arm + 1] + weights[arm + 2];
+        }
+        double scale = (1 - SHARE) / total;
+        double share = SHARE / ARMS;
+        for (int arm = 0; arm < ARMS; arm++) {
+            weights[arm] = weights[arm] * scale + share;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.rps.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Game IDs: 64-bit numbers written as 13 lowercase characters of Crockford's Base32, most significant first.
+ * <p>
+ * The first character carries the top 4 bits and the others 5 bits each, so every {@code long} has exactly one
+ * canonical text form. Parsing also accepts upper case and never allocates, so the ID of a request can be turned
+ * into a map key without creating garbage. Zero is reserved as {@link #INVALID}.
+ */
+public final class GameIds {
+
+    public static final int LENGTH = 13;
+
+    /**
+     * Returned by {@link #parse(CharSequence)} for text that is not a game ID; never assigned to a game.
+     */
+    public static final long INVALID = 0;
+
+    private static final char[] DIGITS = "0123456789abcdefghjkmnpqrstvwxyz".toCharArray();
+    private static final byte[] VALUES = new byte[128];
+
+    private static final int BITS_PER_DIGIT = 5;
+    private static final int FIRST_DIGIT_BITS = Long.SIZE - (LENGTH - 1) * BITS_PER_DIGIT;
+
+    private static final String HANDLE_ALGORITHM = "HmacSHA256";
+    private static final int HANDLE_BYTES = 4;
+    private static final SecretKeySpec HANDLE_KEY = new SecretKeySpec(randomKey(), HANDLE_ALGORITHM);
+    private static final ThreadLocal<Mac> HANDLE_MAC = ThreadLocal.withInitial(GameIds::handleMac);
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < DIGITS.length; i++) {
+            VALUES[DIGITS[i]] = (byte) i;
+            VALUES[Character.toUpperCase(DIGITS[i])] = (byte) i;
+        }
+    }
+
+    private GameIds() {
+    }
+
+    public static String format(long id) {
+        char[] text = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            text[i] = DIGITS[(int) id & 0x1F];
+            id >>>= BITS_PER_DIGIT;
+        }
+        return new String(text);
+    }
+
+    /**
+     * @return The ID, or {@link #INVALID} if the text is not exactly {@value #LENGTH} Base32 characters.
+     */
+    public static long parse(CharSequence text) {
+        if (text == null || text.length() != LENGTH) {
+            return INVALID;
+        }
+        long id = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            char c = text.charAt(i);
+            int value = c < VALUES.length ? VALUES[c] : -1;
+            if (value < 0 || i == 0 && value >>> FIRST_DIGIT_BITS != 0) {
+                return INVALID;
+            }
+            id = id << BITS_PER_DIGIT | value;
+        }
+        return id;
+    }
+
+    /**
+     * Names a game where its ID must not be shown, since the ID lets anyone play or end the game. The handle is a
+     * short keyed hash of the ID: it stays the same while this process runs, but cannot be traced back to the ID.
+     *
+     * @return 8 lowercase hex characters.
+     */
+    public static String handle(String gameId) {
+        byte[] digest = HANDLE_MAC.get().doFinal(gameId.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest, 0, HANDLE_BYTES);
+    }
+
+    private static byte[] randomKey() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
+
+    private static Mac handleMac() {
+        try {
+            Mac mac = Mac.getInstance(HANDLE_ALGORITHM);
+            mac.init(HANDLE_KEY);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to set up game handles.", e);
+        }
+    }
+}
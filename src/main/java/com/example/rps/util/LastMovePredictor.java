@@ -0,0 +1,26 @@
+package com.example.rps.util;
+
+import com.example.rps.model.Move;
+
+/**
+ * Predicts that the player repeats their last move.
+ */
+public class LastMovePredictor implements PredictionStrategy {
+
+    private Move last;
+
+    @Override
+    public void recordMove(Move move) {
+        last = move;
+    }
+
+    @Override
+    public Move predict() {
+        return last;
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return 16;
+    }
+}
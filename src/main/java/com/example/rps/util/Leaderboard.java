@@ -0,0 +1,131 @@
+package com.example.rps.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded ranking of games by the user's win rate, updated as rounds are played.
+ * <p>
+ * The entries live in a small sorted array that is replaced on every change, so reading the board never locks.
+ * Most updates come from games that are neither on the board nor good enough to enter it; they are rejected after
+ * comparing against a volatile threshold and scanning the few entries, without taking the lock.
+ *
+ * @param <K> Identity of a ranked game; compared by reference on the fast path.
+ */
+public class Leaderboard<K> {
+
+    /**
+     * A ranked game as of its last update.
+     */
+    public record Entry<K>(String gameId, K key, int rounds, int wins) {
+
+        public double winRate() {
+            return rounds == 0 ? 0 : (double) wins / rounds;
+        }
+    }
+
+    private final int capacity;
+    private final int minRounds;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @SuppressWarnings("unchecked")
+    private volatile Entry<K>[] entries = new Entry[0];
+
+    /**
+     * Lowest win rate on a full board; a game must beat it to enter. Negative while the board has room.
+     */
+    private volatile double threshold = -1;
+
+    /**
+     * @param capacity  Number of games ranked.
+     * @param minRounds Rounds a game must have played to be ranked, so a lucky first round does not top the board.
+     */
+    public Leaderboard(int capacity, int minRounds) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Leaderboard capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.minRounds = minRounds;
+    }
+
+    public void update(String gameId, K key, int rounds, int wins) {
+        if (rounds < minRounds) {
+            return;
+        }
+        if ((double) wins / rounds <= threshold && indexOf(entries, key) < 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            Entry<K>[] current = entries;
+            List<Entry<K>> updated = new ArrayList<>(current.length + 1);
+            for (Entry<K> entry : current) {
+                if (entry.key() != key) {
+                    updated.add(entry);
+                }
+            }
+            Entry<K> candidate = new Entry<>(gameId, key, rounds, wins);
+            int at = 0;
+            while (at < updated.size() && ranksBefore(updated.get(at), candidate)) {
+                at++;
+            }
+            if (at < capacity) {
+                updated.add(at, candidate);
+            }
+            publish(updated);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops a game that was terminated or evicted. Its place is refilled as other games play.
+     */
+    public void remove(K key) {
+        if (indexOf(entries, key) < 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            List<Entry<K>> updated = new ArrayList<>(Arrays.asList(entries));
+            updated.removeIf(entry -> entry.key() == key);
+            publish(updated);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The ranked games, best first.
+     */
+    public List<Entry<K>> top() {
+        return List.of(entries);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void publish(List<Entry<K>> updated) {
+        while (updated.size() > capacity) {
+            updated.remove(updated.size() - 1);
+        }
+        entries = updated.toArray(new Entry[0]);
+        threshold = updated.size() < capacity ? -1 : updated.get(updated.size() - 1).winRate();
+    }
+
+    private static boolean ranksBefore(Entry<?> a, Entry<?> b) {
+        // Compares wins / rounds without division; a tie goes to the game with more rounds.
+        long left = (long) a.wins() * b.rounds();
+        long right = (long) b.wins() * a.rounds();
+        return left > right || left == right && a.rounds() >= b.rounds();
+    }
+
+    private static int indexOf(Entry<?>[] entries, Object key) {
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i].key() == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
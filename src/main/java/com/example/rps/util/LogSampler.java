@@ -0,0 +1,26 @@
+package com.example.rps.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks a random fraction of frequent events to log, so per-round logging costs little at high request rates.
+ * Sampling draws from {@link ThreadLocalRandom}, so request threads share no state.
+ */
+public final class LogSampler {
+
+    private final double rate;
+
+    /**
+     * @param rate Fraction of events to log, from 0 (none) to 1 (all).
+     */
+    public LogSampler(double rate) {
+        if (!(rate >= 0 && rate <= 1)) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1: " + rate);
+        }
+        this.rate = rate;
+    }
+
+    public boolean sample() {
+        return rate >= 1 || rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+}
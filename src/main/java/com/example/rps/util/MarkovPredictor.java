@@ -0,0 +1,80 @@
+package com.example.rps.util;
+
+import com.example.rps.model.Move;
+
+/**
+ * Order-k Markov predictor: predicts the move the player most often made after their last {@code k} moves.
+ * <p>
+ * The last {@code k} moves are kept as a base-3 number that indexes a flat transition table of
+ * {@code 3^k} rows with one counter per move, so recording and predicting are constant time and allocation-free.
+ * The order is capped at {@link #MAX_ORDER}, which bounds the table at {@code 3^7} ints per game.
+ */
+public class MarkovPredictor implements PredictionStrategy {
+
+    public static final int MAX_ORDER = 6;
+
+    /**
+     * Once a counter reaches this value its row is halved, so old habits fade and the model follows players who change.
+     */
+    private static final int MAX_COUNT = 1 << 10;
+
+    private final int contexts;
+    private final int order;
+    private final int[] transitions;
+
+    private int context;
+    private int observed;
+
+    public MarkovPredictor(int order) {
+        if (order < 1 || order > MAX_ORDER) {
+            throw new IllegalArgumentException("Markov order must be between 1 and " + MAX_ORDER + ": " + order);
+        }
+        int size = 1;
+        for (int i = 0; i < order; i++) {
+            size *= Move.COUNT;
+        }
+        this.order = order;
+        this.contexts = size;
+        this.transitions = new int[size * Move.COUNT];
+    }
+
+    @Override
+    public void recordMove(Move move) {
+        int index = move.ordinal();
+        if (observed < order) {
+            observed++;
+        } else {
+            int row = context * Move.COUNT;
+            if (++transitions[row + index] >= MAX_COUNT) {
+                for (int i = row; i < row + Move.COUNT; i++) {
+                    transitions[i] >>>= 1;
+                }
+            }
+        }
+        context = (context * Move.COUNT + index) % contexts;
+    }
+
+    @Override
+    public Move predict() {
+        if (observed < order) {
+            return null;
+        }
+        int row = context * Move.COUNT;
+        int best = row;
+        for (int i = row + 1; i < row + Move.COUNT; i++) {
+            if (transitions[i] > transitions[best]) {
+                best = i;
+            }
+        }
+        return transitions[best] == 0 ? null : Move.valueAt(best - row);
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return 48L + 16L + (long) transitions.length * Integer.BYTES;
+    }
+
+    public int getOrder() {
+        return order;
+    }
+}
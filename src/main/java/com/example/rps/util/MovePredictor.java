@@ -1,37 +1,26 @@
 package com.example.rps.util;
 
 import com.example.rps.model.Move;
-import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
-import java.util.EnumMap;
-import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+/**
+ * Predicts a player's next move as the move they have played most often.
+ */
+public class MovePredictor implements PredictionStrategy {
 
-@Component
-public class MovePredictor {
-
-    private final Map<Move, Integer> moveHistory;
-
-    public MovePredictor() {
-        this.moveHistory = Arrays.stream(Move.values())
-                .collect(Collectors.toMap(
-                        Function.identity(),
-                        move -> 0,
-                        (a, b) -> a,
-                        () -> new EnumMap<>(Move.class)
-                ));
-    }
+    private final int[] moveCounts = new int[Move.COUNT];
+    private int mostFrequent = -1;
 
+    @Override
     public void recordMove(Move move) {
-        moveHistory.put(move, moveHistory.get(move) + 1);
+        int index = move.ordinal();
+        int count = ++moveCounts[index];
+        if (mostFrequent < 0 || count > moveCounts[mostFrequent]) {
+            mostFrequent = index;
+        }
     }
 
+    @Override
     public Move predict() {
-        return moveHistory.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElseGet(() -> Move.values()[(int) (Math.random() * Move.values().length)]);
+        return mostFrequent < 0 ? null : Move.valueAt(mostFrequent);
     }
 }
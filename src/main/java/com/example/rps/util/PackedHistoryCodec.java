@@ -0,0 +1,40 @@
+package com.example.rps.util;
+
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Packs a column of moves or results at 2 bits per value and encodes it as Base64.
+ * <p>
+ * Value {@code i} is the enum ordinal stored in byte {@code i / 4} at bit offset {@code (i % 4) * 2},
+ * so decoding needs the number of rounds, which is sent alongside the column.
+ */
+public final class PackedHistoryCodec {
+
+    public static final String ENCODING = "2bit-base64";
+
+    private static final int VALUES_PER_BYTE = 4;
+
+    private PackedHistoryCodec() {
+    }
+
+    public static String encode(List<? extends Enum<?>> values) {
+        byte[] packed = new byte[(values.size() + VALUES_PER_BYTE - 1) / VALUES_PER_BYTE];
+        for (int i = 0; i < values.size(); i++) {
+            packed[i / VALUES_PER_BYTE] |= (byte) (values.get(i).ordinal() << (i % VALUES_PER_BYTE) * 2);
+        }
+        return Base64.getEncoder().encodeToString(packed);
+    }
+
+    /**
+     * @return The ordinals of the first {@code count} values of an encoded column.
+     */
+    public static int[] decode(String encoded, int count) {
+        byte[] packed = Base64.getDecoder().decode(encoded);
+        int[] ordinals = new int[count];
+        for (int i = 0; i < count; i++) {
+            ordinals[i] = packed[i / VALUES_PER_BYTE] >>> (i % VALUES_PER_BYTE) * 2 & 0b11;
+        }
+        return ordinals;
+    }
+}
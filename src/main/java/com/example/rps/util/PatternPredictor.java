@@ -0,0 +1,82 @@
+package com.example.rps.util;
+
+import com.example.rps.model.GameResult;
+import com.example.rps.model.Move;
+
+/**
+ * Matches the last {@code k} whole rounds, the player's and the computer's moves, against the history and predicts
+ * the move the player most often made after the same pattern. Like {@link MarkovPredictor}, the pattern is kept as a
+ * base-9 number indexing a flat table, so recording and predicting are constant time and allocation-free.
+ */
+public class PatternPredictor implements PredictionStrategy {
+
+    public static final int MAX_ORDER = 3;
+
+    private static final int SYMBOLS = Move.COUNT * Move.COUNT;
+    private static final int MAX_COUNT = 1 << 10;
+
+    private final int order;
+    private final int contexts;
+    private final int[] transitions;
+
+    private int context;
+    private int observed;
+
+    public PatternPredictor(int order) {
+        if (order < 1 || order > MAX_ORDER) {
+            throw new IllegalArgumentException("Pattern order must be between 1 and " + MAX_ORDER + ": " + order);
+        }
+        int size = 1;
+        for (int i = 0; i < order; i++) {
+            size *= SYMBOLS;
+        }
+        this.order = order;
+        this.contexts = size;
+        this.transitions = new int[size * Move.COUNT];
+    }
+
+    /**
+     * Without the computer's move the pattern is broken, so matching starts over.
+     */
+    @Override
+    public void recordMove(Move move) {
+        context = 0;
+        observed = 0;
+    }
+
+    @Override
+    public void recordRound(Move userMove, Move computerMove, GameResult result) {
+        int index = userMove.ordinal();
+        if (observed < order) {
+            observed++;
+        } else {
+            int row = context * Move.COUNT;
+            if (++transitions[row + index] >= MAX_COUNT) {
+                for (int i = row; i < row + Move.COUNT; i++) {
+                    transitions[i] >>>= 1;
+                }
+            }
+        }
+        context = (context * SYMBOLS + index * Move.COUNT + computerMove.ordinal()) % contexts;
+    }
+
+    @Override
+    public Move predict() {
+        if (observed < order) {
+            return null;
+        }
+        int row = context * Move.COUNT;
+        int best = row;
+        for (int i = row + 1; i < row + Move.COUNT; i++) {
+            if (transitions[i] > transitions[best]) {
+                best = i;
+            }
+        }
+        return transitions[best] == 0 ? null : Move.valueAt(best - row);
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return 48L + 16L + (long) transitions.length * Integer.BYTES;
+    }
+}
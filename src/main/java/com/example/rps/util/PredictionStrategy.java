@@ -0,0 +1,49 @@
+package com.example.rps.util;
+
+import com.example.rps.model.GameResult;
+import com.example.rps.model.Move;
+
+/**
+ * Learns from a player's moves and predicts their next one.
+ * A strategy instance belongs to a single game and is only called under that game's lock.
+ */
+public interface PredictionStrategy {
+
+    /**
+     * Fraction of rounds in which the computer ignores the prediction and plays a uniformly random move.
+     */
+    double DEFAULT_RANDOM_MOVE_RATE = 0.2;
+
+    /**
+     * Learns from a round of which only the player's move is known.
+     */
+    void recordMove(Move move);
+
+    /**
+     * Learns from a whole round. Games call this rather than {@link #recordMove(Move)}; strategies that only look at
+     * the player's moves keep the default.
+     */
+    default void recordRound(Move userMove, Move computerMove, GameResult result) {
+        recordMove(userMove);
+    }
+
+    /**
+     * @return The predicted next move of the player, or {@code null} if there is not enough history yet.
+     */
+    Move predict();
+
+    /**
+     * @return Fraction of rounds in which the computer should play a random move instead of countering the
+     * prediction. Strategies that randomize their own predictions return zero.
+     */
+    default double randomMoveRate() {
+        return DEFAULT_RANDOM_MOVE_RATE;
+    }
+
+    /**
+     * @return Approximate heap footprint of this strategy's state.
+     */
+    default long estimatedBytes() {
+        return 64;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.rps.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Creates the configured {@link PredictionStrategy} for each new game.
+ */
+@Component
+public class PredictionStrategyFactory {
+
+    public static final String FREQUENCY = "frequency";
+    public static final String MARKOV = "markov";
+    public static final String ENSEMBLE = "ensemble";
+
+    private final String strategy;
+    private final int markovOrder;
+
+    public PredictionStrategyFactory(@Value("${rps.prediction.strategy:markov}") String strategy,
+                                     @Value("${rps.prediction.markov-order:2}") int markovOrder) {
+        this.strategy = strategy.toLowerCase();
+        this.markovOrder = markovOrder;
+        // Fail on startup rather than on the first game.
+        create();
+    }
+
+    public PredictionStrategy create() {
+        return create(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * @param seed Seed for strategies that randomize their predictions, so that simulations can be repeated.
+     */
+    public PredictionStrategy create(long seed) {
+        return switch (strategy) {
+            case FREQUENCY -> new MovePredictor();
+            case MARKOV -> new MarkovPredictor(markovOrder);
+            case ENSEMBLE -> new EnsemblePredictor(seed);
+            default -> throw new IllegalArgumentException("Unknown prediction strategy: " + strategy);
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.rps.util;
+
+import com.example.rps.model.GameResult;
+import com.example.rps.model.Move;
+
+/**
+ * Learns how the player reacts to the result of a round, as in "win-stay, lose-shift": for each result it counts
+ * whether the player's next move repeated their move, or shifted one or two steps along the rock, paper, scissors
+ * cycle, and predicts the most frequent reaction to the last result. The result and the player's move together
+ * also determine the computer's move, so a reaction to the computer's move is learned as well.
+ */
+public class WinStayLoseShiftPredictor implements PredictionStrategy {
+
+    /**
+     * Once a counter reaches this value its row is halved, so the model follows players who change their reactions.
+     */
+    private static final int MAX_COUNT = 1 << 5;
+
+    private final int[] reactions = new int[GameResult.values().length * Move.COUNT];
+
+    private int lastMove = -1;
+    private int lastResult = -1;
+
+    /**
+     * Without the result, the round is not counted and the next one starts a new context.
+     */
+    @Override
+    public void recordMove(Move move) {
+        lastMove = move.ordinal();
+        lastResult = -1;
+    }
+
+    @Override
+    public void recordRound(Move userMove, Move computerMove, GameResult result) {
+        int move = userMove.ordinal();
+        if (lastResult >= 0) {
+            int row = lastResult * Move.COUNT;
+            if (++reactions[row + (move - lastMove + Move.COUNT) % Move.COUNT] >= MAX_COUNT) {
+                for (int i = row; i < row + Move.COUNT; i++) {
+                    reactions[i] >>>= 1;
+                }
+            }
+        }
+        lastMove = move;
+        lastResult = result.ordinal();
+    }
+
+    @Override
+    public Move predict() {
+        if (lastResult < 0) {
+            return null;
+        }
+        int row = lastResult * Move.COUNT;
+        int best = 0;
+        for (int shift = 1; shift < Move.COUNT; shift++) {
+            if (reactions[row + shift] > reactions[row + best]) {
+                best = shift;
+            }
+        }
+        return reactions[row + best] == 0 ? null : Move.valueAt((lastMove + best) % Move.COUNT);
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return 32L + 16L + (long) reactions.length * Integer.BYTES;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.rps.websocket;
+
+import com.example.rps.exception.GameNotFoundException;
+import com.example.rps.ratelimit.RateLimits;
+import com.example.rps.service.GameService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
+
+/**
+ * Accepts a WebSocket connection only for a live game, and hands the game ID from the path to the handler, along with
+ * the client the rate limits charge for its frames. Connections to an unknown game are refused with a 404 before the
+ * upgrade.
+ */
+public class GameHandshakeInterceptor implements HandshakeInterceptor {
+
+    private static final String GAME_PREFIX = "/game/";
+    private static final String PLAY_SUFFIX = "/play";
+
+    private final GameService gameService;
+    private final RateLimits rateLimits;
+
+    /**
+     * @param rateLimits {@code null} if admission control is disabled.
+     */
+    public GameHandshakeInterceptor(GameService gameService, RateLimits rateLimits) {
+        this.gameService = gameService;
+        this.rateLimits = rateLimits;
+    }
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler handler, Map<String, Object> attributes) {
+        String path = request.getURI().getPath();
+        int start = path.indexOf(GAME_PREFIX);
+        if (start < 0 || !path.endsWith(PLAY_SUFFIX)) {
+            response.setStatusCode(HttpStatus.NOT_FOUND);
+            return false;
+        }
+        String gameId = path.substring(start + GAME_PREFIX.length(), path.length() - PLAY_SUFFIX.length());
+        try {
+            gameService.getGameOrThrow(gameId);
+        } catch (GameNotFoundException e) {
+            response.setStatusCode(HttpStatus.NOT_FOUND);
+            return false;
+        }
+        attributes.put(GameWebSocketHandler.GAME_ID_ATTRIBUTE, gameId);
+        if (rateLimits != null) {
+            attributes.put(GameWebSocketHandler.CLIENT_ATTRIBUTE,
+                    rateLimits.client(request.getHeaders()::getFirst, request.getRemoteAddress().getHostString()));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler handler, Exception exception) {
+    }
+}
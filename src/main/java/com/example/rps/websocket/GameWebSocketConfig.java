@@ -0,0 +1,36 @@
+package com.example.rps.websocket;
+
+import com.example.rps.controller.ReactiveGameController;
+import com.example.rps.ratelimit.RateLimits;
+import com.example.rps.service.GameService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * Serves the WebSocket play mode at {@code /game/{gameId}/play} on the servlet stack.
+ */
+@Configuration
+@EnableWebSocket
+@Profile("!" + ReactiveGameController.PROFILE)
+public class GameWebSocketConfig implements WebSocketConfigurer {
+
+    static final String PLAY_PATH = "/game/*/play";
+
+    private final GameService gameService;
+    private final RateLimits rateLimits;
+
+    public GameWebSocketConfig(GameService gameService, ObjectProvider<RateLimits> rateLimits) {
+        this.gameService = gameService;
+        this.rateLimits = rateLimits.getIfAvailable();
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(new GameWebSocketHandler(gameService, rateLimits), PLAY_PATH)
+                .addInterceptors(new GameHandshakeInterceptor(gameService, rateLimits));
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.rps.websocket;
+
+import com.example.rps.exception.GameNotFoundException;
+import com.example.rps.model.Move;
+import com.example.rps.model.Round;
+import com.example.rps.ratelimit.RateLimits;
+import com.example.rps.service.GameService;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plays the rounds of one game over a WebSocket connection at {@code /game/{gameId}/play}.
+ * <p>
+ * Each text frame holds one or more moves as letters, {@code R}, {@code P} or {@code S} in either case, and is
+ * answered with one frame holding two letters per round: the computer's move and the result for the user
+ * ({@code W}, {@code L} or {@code D}). So {@code "r"} may be answered {@code "SW"}. A frame with an invalid move is
+ * answered with {@code "!"} and the reason, and the connection stays open. The connection is closed with status
+ * {@value #GAME_NOT_FOUND_CODE} once the game is terminated or expires.
+ * <p>
+ * Frames of one connection are handled one at a time, so a connection plays its rounds in order. With admission
+ * control on, every frame takes a token per move from the client's move bucket and a place under the cap on
+ * requests in flight, like a batch of moves; a frame over a limit is answered with {@code "!"} and the reason, and
+ * not played.
+ */
+public class GameWebSocketHandler extends TextWebSocketHandler {
+
+    static final String GAME_ID_ATTRIBUTE = "gameId";
+    static final String CLIENT_ATTRIBUTE = "client";
+
+    /**
+     * Moves per frame, so that a frame fits the container's default 8 KB message buffer.
+     */
+    static final int MAX_MOVES_PER_FRAME = 4096;
+
+    static final int GAME_NOT_FOUND_CODE = 4404;
+
+    private static final char ERROR_PREFIX = '!';
+    private static final char[] MOVE_LETTERS = {'R', 'P', 'S'};
+    private static final char[] RESULT_LETTERS = {'W', 'L', 'D'};
+
+    private final GameService gameService;
+    private final RateLimits rateLimits;
+
+    /**
+     * @param rateLimits {@code null} if admission control is disabled.
+     */
+    public GameWebSocketHandler(GameService gameService, RateLimits rateLimits) {
+        this.gameService = gameService;
+        this.rateLimits = rateLimits;
+    }
+
+    public GameWebSocketHandler(GameService gameService) {
+        this(gameService, null);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        String payload = message.getPayload();
+        List<Move> userMoves = parseAll(payload);
+        if (userMoves == null) {
+            sendError(session, payload.length() == 1 ? "Invalid move: " + payload
+                    : String.format("A frame must contain between 1 and %d moves, each R, P or S.", MAX_MOVES_PER_FRAME));
+            return;
+        }
+        if (rateLimits == null) {
+            play(session, userMoves);
+            return;
+        }
+        String client = (String) session.getAttributes().get(CLIENT_ATTRIBUTE);
+        if (rateLimits.tryAcquireRounds(client, userMoves.size()) > 0) {
+            sendError(session, "Too many moves; retry later.");
+            return;
+        }
+        if (!rateLimits.tryEnter()) {
+            sendError(session, "The server is overloaded; retry later.");
+            return;
+        }
+        try {
+            play(session, userMoves);
+        } finally {
+            rateLimits.exit();
+        }
+    }
+
+    private void play(WebSocketSession session, List<Move> userMoves) throws IOException {
+        String gameId = (String) session.getAttributes().get(GAME_ID_ATTRIBUTE);
+        try {
+            if (userMoves.size() == 1) {
+                // Interactive play sends one move per frame; play it as a single round.
+                StringBuilder reply = new StringBuilder(2);
+                append(reply, gameService.playRound(gameId, userMoves.get(0)).round());
+                session.sendMessage(new TextMessage(reply));
+                return;
+            }
+
+            List<Round> rounds = gameService.playRounds(gameId, userMoves).rounds();
+            StringBuilder reply = new StringBuilder(rounds.size() * 2);
+            for (Round round : rounds) {
+                append(reply, round);
+            }
+            session.sendMessage(new TextMessage(reply));
+        } catch (GameNotFoundException e) {
+            session.close(new CloseStatus(GAME_NOT_FOUND_CODE, e.getMessage()));
+        }
+    }
+
+    /**
+     * @return The moves of a frame, ignoring whitespace, or {@code null} if it holds an invalid move or too many.
+     */
+    private static List<Move> parseAll(String payload) {
+        if (payload.length() == 1) {
+            // Interactive play sends one move per frame; skip sizing the list.
+            Move move = parse(payload.charAt(0));
+            return move == null ? null : List.of(move);
+        }
+        List<Move> moves = new ArrayList<>(Math.min(payload.length(), MAX_MOVES_PER_FRAME));
+        for (int i = 0; i < payload.length(); i++) {
+            char letter = payload.charAt(i);
+            if (Character.isWhitespace(letter)) {
+                continue;
+            }
+            Move move = parse(letter);
+            if (move == null || moves.size() == MAX_MOVES_PER_FRAME) {
+                return null;
+            }
+            moves.add(move);
+        }
+        return moves.isEmpty() ? null : moves;
+    }
+
+    private static Move parse(char letter) {
+        return switch (letter) {
+            case 'R', 'r' -> Move.ROCK;
+            case 'P', 'p' -> Move.PAPER;
+            case 'S', 's' -> Move.SCISSORS;
+            default -> null;
+        };
+    }
+
+    private static void append(StringBuilder reply, Round round) {
+        reply.append(MOVE_LETTERS[round.computerMove().ordinal()]).append(RESULT_LETTERS[round.result().ordinal()]);
+    }
+
+    private static void sendError(WebSocketSession session, String reason) throws IOException {
+        session.sendMessage(new TextMessage(ERROR_PREFIX + reason));
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.rps;
+
+import com.example.rps.cluster.ClusterClient;
+import com.example.rps.cluster.ClusterMembership;
+import com.example.rps.cluster.ClusterNode;
+import com.example.rps.cluster.ClusterRoutingFilter;
+import com.example.rps.cluster.ClusterSecret;
+import com.example.rps.util.GameIds;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ClusterRoutingFilterTest {
+
+    private static final ClusterNode SELF = ClusterNode.parse("http://localhost:8081");
+    private static final ClusterNode OTHER = ClusterNode.parse("http://localhost:8082");
+
+    private ClusterMembership membership;
+    private ClusterRoutingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        membership = new ClusterMembership(SELF, List.of(SELF, OTHER), 128);
+        ClusterSecret secret = new ClusterSecret("secret");
+        ObjectMapper objectMapper = new ObjectMapper();
+        filter = new ClusterRoutingFilter(membership, new ClusterClient(membership, secret, objectMapper,
+                Duration.ofSeconds(1)), secret, objectMapper, "redirect");
+    }
+
+    @Test
+    void testRedirectsRequestsForRemoteGamesToTheirOwner() throws Exception {
+        String gameId = gameOwnedBy(OTHER);
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/game/stats/" + gameId), response, chain);
+
+        assertNull(chain.getRequest());
+        assertEquals(307, response.getStatus());
+        assertEquals("http://localhost:8082/game/stats/" + gameId, response.getHeader("Location"));
+    }
+
+    @Test
+    void testReadsTheGameOfAMoveFromTheBodyAndKeepsItReadable() throws Exception {
+        String gameId = gameOwnedBy(SELF);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/game/move");
+        request.setContentType("application/json");
+        request.setContent(("{\"gameId\":\"" + gameId + "\",\"move\":\"rock\"}").getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        String body = new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals("{\"gameId\":\"" + gameId + "\",\"move\":\"rock\"}", body);
+    }
+
+    @Test
+    void testReadsTheCachedBodyThroughAReadListener() throws Exception {
+        String gameId = gameOwnedBy(SELF);
+        String json = "{\"gameId\":\"" + gameId + "\",\"move\":\"paper\"}";
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/game/move");
+        request.setContentType("application/json");
+        request.setContent(json.getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        ServletInputStream in = chain.getRequest().getInputStream();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                byte[] buffer = new byte[8];
+                while (in.isReady() && !in.isFinished()) {
+                    int read = in.read(buffer);
+                    if (read > 0) {
+                        body.write(buffer, 0, read);
+                    }
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allRead.set(true);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+
+        assertTrue(allRead.get());
+        assertEquals(json, body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testHandlesForwardedRequestsLocallyOnlyWithTheSecret() throws Exception {
+        String gameId = gameOwnedBy(OTHER);
+
+        MockHttpServletRequest forged = new MockHttpServletRequest("GET", "/game/" + gameId);
+        forged.addHeader(ClusterClient.FORWARDED_BY_HEADER, OTHER.toString());
+        forged.addHeader(ClusterSecret.HEADER, "guess");
+        MockFilterChain forgedChain = new MockFilterChain();
+        MockHttpServletResponse forgedResponse = new MockHttpServletResponse();
+        filter.doFilter(forged, forgedResponse, forgedChain);
+        assertNull(forgedChain.getRequest());
+        assertEquals(307, forgedResponse.getStatus());
+
+        MockHttpServletRequest forwarded = new MockHttpServletRequest("GET", "/game/" + gameId);
+        forwarded.addHeader(ClusterClient.FORWARDED_BY_HEADER, OTHER.toString());
+        forwarded.addHeader(ClusterSecret.HEADER, "secret");
+        MockFilterChain forwardedChain = new MockFilterChain();
+        filter.doFilter(forwarded, new MockHttpServletResponse(), forwardedChain);
+        assertNotNull(forwardedChain.getRequest());
+    }
+
+    @Test
+    void testPassesRequestsThatNameNoGame() throws Exception {
+        for (String path : List.of("/game/start", "/game/sessions", "/game/stats/global", "/actuator/health")) {
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(new MockHttpServletRequest("GET", path), new MockHttpServletResponse(), chain);
+            assertNotNull(chain.getRequest(), path);
+        }
+    }
+
+    private String gameOwnedBy(ClusterNode node) {
+        Random random = new Random(42);
+        while (true) {
+            String gameId = GameIds.format(random.nextLong());
+            if (membership.ring().ownerOf(gameId).equals(node)) {
+                return gameId;
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.rps;
+
+import com.example.rps.cluster.ClusterNode;
+import com.example.rps.cluster.ConsistentHashRing;
+import com.example.rps.util.GameIds;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConsistentHashRingTest {
+
+    private static final int GAMES = 30_000;
+
+    private final List<ClusterNode> nodes = List.of(
+            ClusterNode.parse("http://localhost:8081"),
+            ClusterNode.parse("http://localhost:8082"),
+            ClusterNode.parse("http://localhost:8083/"));
+
+    @Test
+    void testSpreadsGamesEvenlyAndAgreesAcrossMemberOrders() {
+        ConsistentHashRing ring = new ConsistentHashRing(nodes, 128);
+        List<ClusterNode> reversedNodes = new ArrayList<>(nodes);
+        Collections.reverse(reversedNodes);
+        ConsistentHashRing reversed = new ConsistentHashRing(reversedNodes, 128);
+
+        Map<ClusterNode, Integer> shares = new HashMap<>();
+        for (String gameId : gameIds()) {
+            ClusterNode owner = ring.ownerOf(gameId);
+            assertEquals(owner, reversed.ownerOf(gameId));
+            shares.merge(owner, 1, Integer::sum);
+        }
+
+        assertEquals(nodes.size(), shares.size());
+        shares.values().forEach(share -> assertTrue(Math.abs(share - GAMES / 3) < GAMES / 3 * 0.2, "Share: " + share));
+    }
+
+    @Test
+    void testJoiningNodeOnlyTakesGamesFromOthers() {
+        ConsistentHashRing before = new ConsistentHashRing(nodes, 128);
+        List<ClusterNode> grown = new ArrayList<>(nodes);
+        ClusterNode joined = ClusterNode.parse("http://localhost:8084");
+        grown.add(joined);
+        ConsistentHashRing after = new ConsistentHashRing(grown, 128);
+
+        int moved = 0;
+        for (String gameId : gameIds()) {
+            ClusterNode owner = after.ownerOf(gameId);
+            if (!owner.equals(before.ownerOf(gameId))) {
+                assertEquals(joined, owner);
+                moved++;
+            }
+        }
+
+        assertTrue(Math.abs(moved - GAMES / 4) < GAMES / 4 * 0.2, "Moved: " + moved);
+    }
+
+    @Test
+    void testRoutesEverySpellingOfAnIdToTheSameOwner() {
+        ConsistentHashRing ring = new ConsistentHashRing(nodes, 128);
+        Map<ClusterNode, Integer> shares = new HashMap<>();
+        for (String gameId : gameIds()) {
+            ClusterNode owner = ring.ownerOf(gameId);
+            assertEquals(owner, ring.ownerOf(gameId.toUpperCase(Locale.ROOT)));
+            String mixed = Character.toUpperCase(gameId.charAt(0)) + gameId.substring(1, 7)
+                    + gameId.substring(7).toUpperCase(Locale.ROOT);
+            assertEquals(owner, ring.ownerOf(mixed));
+            shares.merge(owner, 1, Integer::sum);
+        }
+        assertEquals(nodes.size(), shares.size());
+    }
+
+    private static List<String> gameIds() {
+        Random random = new Random(42);
+        List<String> gameIds = new ArrayList<>(GAMES);
+        for (int i = 0; i < GAMES; i++) {
+            gameIds.add(GameIds.format(random.nextLong()));
+        }
+        return gameIds;
+    }
+}
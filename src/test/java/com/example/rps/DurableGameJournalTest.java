@@ -0,0 +1,152 @@
+package com.example.rps;
+
+import com.example.rps.export.NoOpGameArchive;
+import com.example.rps.metrics.GameMetrics;
+import com.example.rps.model.Game;
+import com.example.rps.model.Move;
+import com.example.rps.persistence.DurableGameJournal;
+import com.example.rps.persistence.WriteAheadLog;
+import com.example.rps.repository.ShardedGameRepository;
+import com.example.rps.service.GameService;
+import com.example.rps.service.GlobalStatisticsService;
+import com.example.rps.service.MoveService;
+import com.example.rps.service.RandomGameIdGenerator;
+import com.example.rps.util.PredictionStrategyFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class DurableGameJournalTest {
+
+    private static final long SEGMENT_BYTES = 4096;
+
+    private final PredictionStrategyFactory predictionStrategyFactory =
+            new PredictionStrategyFactory(PredictionStrategyFactory.MARKOV, 2);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecoversGamesFromSnapshotAndLogTail() throws Exception {
+        ShardedGameRepository games = new ShardedGameRepository(4);
+        DurableGameJournal journal = open(games);
+        GameService gameService = newGameService(games, journal);
+
+        List<String> gameIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            gameIds.add(gameService.startNewGame());
+        }
+        // Enough rounds to roll several segments, with a snapshot in the middle.
+        for (int round = 0; round < 600; round++) {
+            gameService.playRound(gameIds.get(round % 3), Move.valueAt(round % Move.COUNT));
+            if (round == 300) {
+                journal.snapshot();
+            }
+        }
+        gameService.terminateGame(gameIds.get(2));
+        journal.close();
+
+        ShardedGameRepository recovered = new ShardedGameRepository(4);
+        open(recovered).close();
+
+        assertEquals(2, recovered.count());
+        assertFalse(recovered.findById(gameIds.get(2)).isPresent());
+        for (String gameId : gameIds.subList(0, 2)) {
+            Game original = games.findById(gameId).orElseThrow();
+            Game restored = recovered.findById(gameId).orElseThrow();
+            assertEquals(200, restored.getRoundCount());
+            assertEquals(original.getStatistics(), restored.getStatistics());
+            assertEquals(original.getComputerMoves(), restored.getComputerMoves());
+            assertEquals(original.getUserMoves(), restored.getUserMoves());
+        }
+    }
+
+    @Test
+    void testRecoveryDropsTornLastRecord() throws Exception {
+        String gameId = playFiveRoundsAndClose();
+
+        // A crash in the middle of the last record leaves it with a checksum that does not match.
+        try (FileChannel segment = FileChannel.open(lastSegment(), StandardOpenOption.WRITE)) {
+            segment.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF}), 5L * WriteAheadLog.RECORD_BYTES + 12);
+        }
+
+        assertRecoveredRoundsAndKeepsLogging(gameId, 4);
+    }
+
+    @Test
+    void testRecoveryDropsPartialLastRecord() throws Exception {
+        String gameId = playFiveRoundsAndClose();
+
+        try (FileChannel segment = FileChannel.open(lastSegment(), StandardOpenOption.WRITE)) {
+            segment.truncate(5L * WriteAheadLog.RECORD_BYTES + 10);
+        }
+
+        assertRecoveredRoundsAndKeepsLogging(gameId, 4);
+    }
+
+    /**
+     * @return A game started after the startup snapshot, so its six records are the whole last segment.
+     */
+    private String playFiveRoundsAndClose() throws Exception {
+        ShardedGameRepository games = new ShardedGameRepository(4);
+        DurableGameJournal journal = open(games);
+        GameService gameService = newGameService(games, journal);
+        String gameId = gameService.startNewGame();
+        for (int round = 0; round < 5; round++) {
+            gameService.playRound(gameId, Move.valueAt(round % Move.COUNT));
+        }
+        journal.close();
+        return gameId;
+    }
+
+    /**
+     * Recovers the game with the given rounds, plays one more and checks that a second restart keeps it.
+     */
+    private void assertRecoveredRoundsAndKeepsLogging(String gameId, int rounds) throws Exception {
+        ShardedGameRepository recovered = new ShardedGameRepository(4);
+        DurableGameJournal journal = open(recovered);
+        assertEquals(rounds, recovered.findById(gameId).orElseThrow().getRoundCount());
+        newGameService(recovered, journal).playRound(gameId, Move.ROCK);
+        journal.close();
+
+        ShardedGameRepository restarted = new ShardedGameRepository(4);
+        open(restarted).close();
+        assertEquals(rounds + 1, restarted.findById(gameId).orElseThrow().getRoundCount());
+    }
+
+    private Path lastSegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("wal-"))
+                    .max(Comparator.naturalOrder())
+                    .orElseThrow();
+        }
+    }
+
+    private GameService newGameService(ShardedGameRepository games, DurableGameJournal journal) {
+        return new GameService(new MoveService(), games, new RandomGameIdGenerator(),
+                predictionStrategyFactory, journal, new NoOpGameArchive(),
+                new GameMetrics(new SimpleMeterRegistry(), games), new GlobalStatisticsService(games), 0);
+    }
+
+    private DurableGameJournal open(ShardedGameRepository games) throws Exception {
+        DurableGameJournal journal = new DurableGameJournal(games, predictionStrategyFactory, directory,
+                SEGMENT_BYTES, Duration.ofMillis(1), true);
+        journal.recover();
+        return journal;
+    }
+}
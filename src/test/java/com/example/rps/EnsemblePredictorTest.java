@@ -0,0 +1,86 @@
+package com.example.rps;
+
+import com.example.rps.model.GameResult;
+import com.example.rps.model.Move;
+import com.example.rps.util.EnsemblePredictor;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EnsemblePredictorTest {
+
+    private static final int DRAWS = 1_000;
+
+    @Test
+    void testWeightShiftsToTheArmsThatWouldHaveWon() {
+        EnsemblePredictor predictor = new EnsemblePredictor(1);
+        // No expert has a prediction before the first round.
+        assertEquals(1.0, share(predictor, null));
+
+        play(predictor, Move.ROCK, 50);
+
+        // Every expert predicts rock, and the arm that plays it straight gains e^0.3 per round over the others.
+        double share = share(predictor, Move.ROCK);
+        assertTrue(share > 0.95, "Share of rock: " + share);
+    }
+
+    @Test
+    void testRotatedArmsCatchAPlayerWhoStaysAheadOfTheExperts() {
+        EnsemblePredictor predictor = new EnsemblePredictor(2);
+
+        // Each move beats the previous one, so the experts' raw predictions lose; their rotated arms win.
+        Move move = Move.ROCK;
+        for (int round = 0; round < 60; round++) {
+            record(predictor, move);
+            move = move.counter();
+        }
+
+        double share = share(predictor, move);
+        assertTrue(share > 0.9, "Share of the next move: " + share);
+    }
+
+    @Test
+    void testFixedShareKeepsLosingArmsInPlay() {
+        EnsemblePredictor predictor = new EnsemblePredictor(3);
+        play(predictor, Move.ROCK, 2_000);
+
+        // Without the share, the ten arms not predicting rock and the random arm would weigh e^-300 or less after
+        // 2000 rounds. The share adds 0.005 / 16 of the total to each every round, which settles them at two to four
+        // times that, so together they are still drawn about 1% of the time.
+        int draws = 100_000;
+        int others = 0;
+        for (int draw = 0; draw < draws; draw++) {
+            if (predictor.predict() != Move.ROCK) {
+                others++;
+            }
+        }
+        double share = (double) others / draws;
+        assertTrue(share > 0.005 && share < 0.02, "Share of other arms: " + share);
+    }
+
+    private static void play(EnsemblePredictor predictor, Move move, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            record(predictor, move);
+        }
+    }
+
+    private static void record(EnsemblePredictor predictor, Move userMove) {
+        Move computerMove = Move.PAPER;
+        predictor.recordRound(userMove, computerMove, GameResult.of(userMove, computerMove));
+    }
+
+    /**
+     * @param expected A move, or {@code null} for draws of the random arm and of arms with no prediction yet.
+     * @return Fraction of draws that predict the expected move.
+     */
+    private static double share(EnsemblePredictor predictor, Move expected) {
+        int hits = 0;
+        for (int draw = 0; draw < DRAWS; draw++) {
+            if (predictor.predict() == expected) {
+                hits++;
+            }
+        }
+        return (double) hits / DRAWS;
+    }
+}
@@ -3,31 +3,45 @@ package com.example.rps;
 import com.example.rps.controller.GameController;
 import com.example.rps.model.Game;
 import com.example.rps.model.GameResult;
+import com.example.rps.model.GameStatistics;
+import com.example.rps.model.GlobalStatistics;
 import com.example.rps.model.Move;
+import com.example.rps.model.PlayedRound;
+import com.example.rps.model.PlayedRounds;
+import com.example.rps.model.Round;
+import com.example.rps.ratelimit.RateLimits;
+import com.example.rps.repository.SessionStoreStatistics;
+import com.example.rps.service.GameActivity;
 import com.example.rps.service.GameService;
+import com.example.rps.service.GlobalStatisticsService;
 import com.example.rps.service.MoveService;
 import com.example.rps.service.StatisticsService;
+import com.example.rps.util.PackedHistoryCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(GameController.class)
+@Import(RateLimits.class)
 public class GameControllerTest {
 
     @Autowired
@@ -42,6 +56,9 @@ public class GameControllerTest {
     @MockBean
     private StatisticsService statisticsService;
 
+    @MockBean
+    private GlobalStatisticsService globalStatisticsService;
+
     private String gameId;
 
     @BeforeEach
@@ -58,7 +75,8 @@ public class GameControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.valid").value(true))
-                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value("Game started! Your game ID is: " + gameId));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.gameId").value(gameId))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").doesNotExist());
     }
 
     @Test
@@ -67,52 +85,136 @@ public class GameControllerTest {
         Move computerMove = Move.PAPER;
         GameResult result = GameResult.LOSE;
 
-        Map<String, Integer> stats = new HashMap<>();
-        stats.put("wins", 1);
-        stats.put("draws", 0);
-        stats.put("losses", 1);
+        GameStatistics stats = new GameStatistics(1, 1, 0);
 
-        Game game = new Game();
-        game.addMove(userMove, computerMove, result);
-
-        when(gameService.getGameOrThrow(gameId)).thenReturn(game);
         when(moveService.convertToEnum("ROCK", Move.class)).thenReturn(userMove);
-        when(gameService.playRound(anyString(), any(Move.class))).thenReturn(result);
-        when(statisticsService.getStatisticsByGameId(gameId)).thenReturn(stats);
+        when(gameService.playRound(anyString(), any(Move.class)))
+                .thenReturn(new PlayedRound(new Round(userMove, computerMove, result), stats));
 
         mockMvc.perform(MockMvcRequestBuilders.post("/game/move")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"gameId\":\"" + gameId + "\",\"move\":\"ROCK\"}"))
                 .andExpect(status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.valid").value(true))
-                .andExpect(MockMvcResultMatchers.jsonPath("$.message")
-                        .value("You played ROCK. Computer played PAPER. Result: LOSE. Current stats: {wins=1, draws=0, losses=1}"));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.userMove").value("ROCK"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.computerMove").value("PAPER"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.result").value("LOSE"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.stats.wins").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.stats.losses").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.stats.draws").value(0));
+        // The statistics come with the round; the game is not looked up a second time.
+        verifyNoInteractions(statisticsService);
+    }
+
+    @Test
+    void testMakeMoveWithInvalidMove() throws Exception {
+        when(moveService.convertToEnum("LIZARD", Move.class))
+                .thenThrow(new IllegalArgumentException("Invalid enum value: LIZARD"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/game/move")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"gameId\":\"" + gameId + "\",\"move\":\"LIZARD\"}"))
+                .andExpect(status().isNotFound())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.valid").value(false))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value("Invalid enum value: LIZARD"));
+    }
+
+    @Test
+    void testMakeMoves() throws Exception {
+        GameStatistics stats = new GameStatistics(1, 0, 1);
+
+        when(moveService.convertToEnum("ROCK", Move.class)).thenReturn(Move.ROCK);
+        when(moveService.convertToEnum("paper", Move.class)).thenReturn(Move.PAPER);
+        when(gameService.playRounds(eq(gameId), eq(List.of(Move.ROCK, Move.PAPER)))).thenReturn(new PlayedRounds(List.of(
+                new Round(Move.ROCK, Move.SCISSORS, GameResult.WIN),
+                new Round(Move.PAPER, Move.PAPER, GameResult.DRAW)), stats));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/game/" + gameId + "/moves")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"ROCK\",\"paper\"]"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.valid").value(true))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.computerMoves[0]").value("SCISSORS"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.computerMoves[1]").value("PAPER"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[0]").value("WIN"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[1]").value("DRAW"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.stats.wins").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.stats.draws").value(1));
     }
 
     @Test
     void testGetGameStatistics() throws Exception {
-        Map<String, Integer> stats = new HashMap<>();
-        stats.put("wins", 1);
-        stats.put("losses", 1);
-        stats.put("draws", 0);
+        GameStatistics stats = new GameStatistics(1, 1, 0);
 
         when(statisticsService.getStatisticsByGameId(gameId)).thenReturn(stats);
 
         mockMvc.perform(MockMvcRequestBuilders.get("/game/stats/" + gameId))
                 .andExpect(status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.valid").value(true))
-                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(stats.toString()));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.stats.wins").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.stats.losses").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.stats.draws").value(0));
+    }
+
+    @Test
+    void testGetGlobalStatistics() throws Exception {
+        Map<Move, Long> moves = Map.of(Move.ROCK, 5L, Move.PAPER, 3L, Move.SCISSORS, 2L);
+        when(globalStatisticsService.getGlobalStatistics()).thenReturn(new GlobalStatistics(10, 4, 5, 1, moves, moves,
+                List.of(new GlobalStatistics.RankedGame(1, "5f3a09c1", 40, 30, 0.75))));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/game/stats/global"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.valid").value(true))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rounds").value(10))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.winRate").value(0.4))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.userMoves.ROCK").value(5))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.topGames[0].handle").value("5f3a09c1"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.topGames[0].gameId").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.topGames[0].winRate").value(0.75));
     }
 
     @Test
     void testGetGameDetails() throws Exception {
         Game game = new Game();
+        game.addMove(Move.ROCK, Move.PAPER, GameResult.LOSE);
+        game.addMove(Move.SCISSORS, Move.PAPER, GameResult.WIN);
+
         when(gameService.getGameOrThrow(gameId)).thenReturn(game);
 
         mockMvc.perform(MockMvcRequestBuilders.get("/game/" + gameId))
                 .andExpect(status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.valid").value(true))
-                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(game.toString()));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rounds").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.stats.wins").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.stats.losses").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.userMoves[1]").value("SCISSORS"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.computerMoves[0]").value("PAPER"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[0]").value("LOSE"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/game/" + gameId).param("encoding", "packed"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rounds").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.encoding").value(PackedHistoryCodec.ENCODING))
+                // SCISSORS (2) in bits 2-3 and ROCK (0) in bits 0-1
+                .andExpect(MockMvcResultMatchers.jsonPath("$.userMoves").value("CA=="))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results").value("AQ=="));
+    }
+
+    @Test
+    void testGetSessionStatistics() throws Exception {
+        when(gameService.getSessionStatistics()).thenReturn(new SessionStoreStatistics(3, 2, 1, 4096));
+        when(gameService.getActivity()).thenReturn(new GameActivity(6, 120, 1));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/game/sessions"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.valid").value(true))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.liveSessions").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.expiredEvictions").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.capacityEvictions").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.estimatedBytes").value(4096))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.gamesStarted").value(6))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.roundsPlayed").value(120))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.gamesTerminated").value(1));
     }
 
     @Test
@@ -0,0 +1,164 @@
+package com.example.rps;
+
+import com.example.rps.cluster.ClusterClient;
+import com.example.rps.cluster.ClusterMembership;
+import com.example.rps.cluster.ClusterNode;
+import com.example.rps.cluster.ClusterSecret;
+import com.example.rps.cluster.GameHandoff;
+import com.example.rps.exception.GameNotFoundException;
+import com.example.rps.model.Move;
+import com.example.rps.repository.ShardedGameRepository;
+import com.example.rps.service.GameService;
+import com.example.rps.service.MoveService;
+import com.example.rps.util.PredictionStrategyFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GameHandoffTest {
+
+    private static final ClusterNode NODE_A = ClusterNode.parse("http://localhost:8081");
+    private static final ClusterNode NODE_B = ClusterNode.parse("http://localhost:8082");
+    private static final ClusterSecret SECRET = new ClusterSecret("secret");
+
+    private final AtomicInteger sends = new AtomicInteger();
+
+    private ShardedGameRepository gamesA;
+    private GameService serviceA;
+    private ClusterMembership membershipA;
+    private GameHandoff handoffA;
+    private ShardedGameRepository gamesB;
+    private GameService serviceB;
+    private GameHandoff handoffB;
+
+    /**
+     * Called for every batch node A sends to node B, with the encoded batch.
+     */
+    private Delivery delivery;
+
+    @BeforeEach
+    void setUp() {
+        gamesA = new ShardedGameRepository(4);
+        serviceA = newService(gamesA);
+        membershipA = new ClusterMembership(NODE_A, List.of(NODE_A), 128);
+        handoffA = new GameHandoff(membershipA, new ClusterClient(membershipA, SECRET, new ObjectMapper(), Duration.ofSeconds(1)) {
+            @Override
+            public void handOff(ClusterNode node, byte[] games) throws IOException {
+                sends.incrementAndGet();
+                delivery.send(games);
+            }
+        }, serviceA, gamesA, 3);
+
+        gamesB = new ShardedGameRepository(4);
+        serviceB = newService(gamesB);
+        ClusterMembership membershipB = new ClusterMembership(NODE_B, List.of(NODE_A, NODE_B), 128);
+        handoffB = new GameHandoff(membershipB, new ClusterClient(membershipB, SECRET, new ObjectMapper(),
+                Duration.ofSeconds(1)), serviceB, gamesB, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        handoffA.close();
+        handoffB.close();
+    }
+
+    @Test
+    void testRetryAfterLostConfirmationDoesNotBringBackTerminatedGame() throws Exception {
+        String gameId = startGameOwnedByB();
+        delivery = games -> {
+            // Released games stay on A, closed, until B confirms.
+            assertTrue(gamesA.findById(gameId).orElseThrow().isClosed());
+            assertThrows(GameNotFoundException.class, () -> serviceA.playRound(gameId, Move.ROCK));
+
+            handoffB.receive(new ByteArrayInputStream(games));
+            if (sends.get() == 1) {
+                // The client plays on and ends the game on B, while A never hears that B took it.
+                serviceB.playRound(gameId, Move.PAPER);
+                serviceB.terminateGame(gameId);
+                throw new IOException("Timed out");
+            }
+        };
+
+        membershipA.update(List.of(NODE_A, NODE_B));
+        awaitTrue(() -> gamesA.findById(gameId).isEmpty());
+
+        assertEquals(2, sends.get());
+        assertFalse(gamesB.findById(gameId).isPresent());
+    }
+
+    @Test
+    void testKeepsGamesWhoseOwnerCannotBeReached() throws Exception {
+        String gameId = startGameOwnedByB();
+        delivery = games -> {
+            throw new IOException("Connection refused");
+        };
+
+        membershipA.update(List.of(NODE_A, NODE_B));
+        awaitTrue(() -> sends.get() == 3 && gamesA.findById(gameId).map(game -> !game.isClosed()).orElse(false));
+
+        // Reopened with its history, and playable again.
+        assertEquals(2, gamesA.findById(gameId).orElseThrow().getRoundCount());
+        serviceA.playRound(gameId, Move.SCISSORS);
+        assertEquals(3, gamesA.findById(gameId).orElseThrow().getRoundCount());
+        assertFalse(gamesB.findById(gameId).isPresent());
+    }
+
+    @Test
+    void testReceivingAGameTwiceInOneHandoffAdoptsItOnce() throws Exception {
+        String gameId = startGameOwnedByB();
+        delivery = games -> {
+            assertEquals(1, handoffB.receive(new ByteArrayInputStream(games)));
+            assertEquals(0, handoffB.receive(new ByteArrayInputStream(games)));
+        };
+
+        membershipA.update(List.of(NODE_A, NODE_B));
+        awaitTrue(() -> gamesA.findById(gameId).isEmpty());
+
+        assertEquals(2, serviceB.getGameOrThrow(gameId).getRoundCount());
+    }
+
+    /**
+     * @return A game with two rounds on node A, which node B owns once it joins.
+     */
+    private String startGameOwnedByB() {
+        ClusterMembership joined = new ClusterMembership(NODE_A, List.of(NODE_A, NODE_B), 128);
+        while (true) {
+            String gameId = serviceA.startNewGame();
+            if (joined.ring().ownerOf(gameId).equals(NODE_B)) {
+                serviceA.playRound(gameId, Move.ROCK);
+                serviceA.playRound(gameId, Move.ROCK);
+                return gameId;
+            }
+            serviceA.terminateGame(gameId);
+        }
+    }
+
+    private static GameService newService(ShardedGameRepository games) {
+        return new GameService(new MoveService(), games, new PredictionStrategyFactory(PredictionStrategyFactory.MARKOV, 2));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the handoff");
+            Thread.sleep(10);
+        }
+    }
+
+    private interface Delivery {
+        void send(byte[] games) throws IOException;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.rps;
+
+import com.example.rps.export.NoOpGameArchive;
+import com.example.rps.metrics.GameMetrics;
+import com.example.rps.model.Move;
+import com.example.rps.persistence.NoOpGameJournal;
+import com.example.rps.repository.ShardedGameRepository;
+import com.example.rps.service.GameService;
+import com.example.rps.service.GlobalStatisticsService;
+import com.example.rps.service.MoveService;
+import com.example.rps.service.RandomGameIdGenerator;
+import com.example.rps.util.GameIds;
+import com.example.rps.util.PredictionStrategyFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GameIdsTest {
+
+    @Test
+    void testFormatAndParseRoundTrip() {
+        for (long id : new long[]{1, -1, Long.MIN_VALUE, Long.MAX_VALUE, 0x0123456789ABCDEFL}) {
+            String text = GameIds.format(id);
+            assertEquals(GameIds.LENGTH, text.length());
+            assertEquals(id, GameIds.parse(text));
+            assertEquals(id, GameIds.parse(text.toUpperCase()));
+        }
+        RandomGameIdGenerator ids = new RandomGameIdGenerator();
+        for (int i = 0; i < 1000; i++) {
+            String text = ids.nextId();
+            assertEquals(text, GameIds.format(GameIds.parse(text)));
+        }
+    }
+
+    @Test
+    void testParseRejectsMalformedText() {
+        for (String text : new String[]{null, "", "g000000000000", "000000000000u",
+                "00000000000i1", "00000000000l1", "00000000000o1", "00000000000001", "000000000001",
+                "00000000000\u00e91", "00000000000\uff101", "3f2504e0-4f89-11d3-9a0c-0305e82c3301"}) {
+            assertEquals(GameIds.INVALID, GameIds.parse(text), text);
+        }
+        assertEquals(GameIds.INVALID, GameIds.parse(GameIds.format(GameIds.INVALID)));
+    }
+
+    @Test
+    void testRandomIdsAreDistinctAndNeverInvalid() {
+        RandomGameIdGenerator ids = new RandomGameIdGenerator();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            long id = ids.nextLongId();
+            assertNotEquals(GameIds.INVALID, id);
+            assertTrue(seen.add(id));
+        }
+    }
+
+    @Test
+    void testStartNewGameDrawsAnotherIdWhenOneIsTaken() {
+        String taken = GameIds.format(1);
+        String free = GameIds.format(2);
+        Iterator<String> ids = List.of(taken, taken, free).iterator();
+        ShardedGameRepository games = new ShardedGameRepository(4);
+        GameService gameService = new GameService(new MoveService(), games, ids::next,
+                new PredictionStrategyFactory(PredictionStrategyFactory.MARKOV, 2), new NoOpGameJournal(),
+                new NoOpGameArchive(), new GameMetrics(new SimpleMeterRegistry(), games),
+                new GlobalStatisticsService(games), 0);
+
+        assertEquals(taken, gameService.startNewGame());
+        gameService.playRound(taken, Move.ROCK);
+
+        assertEquals(free, gameService.startNewGame());
+        assertEquals(1, gameService.getGameOrThrow(taken).getRoundCount());
+        assertEquals(0, gameService.getGameOrThrow(free).getRoundCount());
+    }
+
+    @Test
+    void testHandleIsStableAndHidesTheId() {
+        String gameId = new RandomGameIdGenerator().nextId();
+        String handle = GameIds.handle(gameId);
+        assertEquals(handle, GameIds.handle(gameId));
+        assertTrue(handle.matches("[0-9a-f]{8}"), handle);
+        assertFalse(gameId.contains(handle));
+    }
+}
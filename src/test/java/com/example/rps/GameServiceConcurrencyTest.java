@@ -0,0 +1,94 @@
+package com.example.rps;
+
+import com.example.rps.model.Game;
+import com.example.rps.model.GameStatistics;
+import com.example.rps.model.Move;
+import com.example.rps.repository.GameRepository;
+import com.example.rps.repository.ShardedGameRepository;
+import com.example.rps.service.GameService;
+import com.example.rps.service.MoveService;
+import com.example.rps.service.StatisticsService;
+import com.example.rps.util.PredictionStrategyFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GameServiceConcurrencyTest {
+
+    private static final int CLIENTS = 64;
+    private static final int SHARED_GAMES = 8;
+    private static final int ROUNDS_PER_CLIENT = 2_000;
+
+    private GameService gameService;
+    private StatisticsService statisticsService;
+
+    @BeforeEach
+    void setUp() {
+        GameRepository games = new ShardedGameRepository(4);
+        statisticsService = new StatisticsService(games);
+        gameService = new GameService(new MoveService(), games,
+                new PredictionStrategyFactory(PredictionStrategyFactory.MARKOV, 2));
+    }
+
+    @Test
+    void testNoRoundsOrStatisticsLostUnderConcurrentClients() throws Exception {
+        List<String> sharedGames = new ArrayList<>();
+        for (int i = 0; i < SHARED_GAMES; i++) {
+            sharedGames.add(gameService.startNewGame());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> ownGames = new ArrayList<>();
+        Move[] moves = Move.values();
+
+        for (int client = 0; client < CLIENTS; client++) {
+            int offset = client;
+            ownGames.add(executor.submit(() -> {
+                // Every client also starts its own game so registry writes race with reads on other shards.
+                String ownGame = gameService.startNewGame();
+                start.await();
+                for (int round = 0; round < ROUNDS_PER_CLIENT; round++) {
+                    Move move = moves[(offset + round) % moves.length];
+                    gameService.playRound(sharedGames.get((offset + round) % SHARED_GAMES), move);
+                    gameService.playRound(ownGame, move);
+                }
+                return ownGame;
+            }));
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+
+        int sharedRounds = 0;
+        for (String gameId : sharedGames) {
+            sharedRounds += assertConsistent(gameId);
+        }
+        assertEquals(CLIENTS * ROUNDS_PER_CLIENT, sharedRounds);
+
+        for (Future<String> ownGame : ownGames) {
+            assertEquals(ROUNDS_PER_CLIENT, assertConsistent(ownGame.get()));
+        }
+    }
+
+    private int assertConsistent(String gameId) {
+        Game game = gameService.getGameOrThrow(gameId);
+        GameStatistics stats = statisticsService.getStatisticsByGameId(gameId);
+        int rounds = game.getRoundCount();
+
+        assertEquals(rounds, game.getComputerMoves().size());
+        assertEquals(rounds, stats.wins() + stats.losses() + stats.draws());
+        return rounds;
+    }
+}
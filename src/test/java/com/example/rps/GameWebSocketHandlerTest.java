@@ -0,0 +1,121 @@
+package com.example.rps;
+
+import com.example.rps.ratelimit.RateLimits;
+import com.example.rps.repository.ShardedGameRepository;
+import com.example.rps.service.GameService;
+import com.example.rps.service.MoveService;
+import com.example.rps.util.PredictionStrategyFactory;
+import com.example.rps.websocket.GameWebSocketHandler;
+import org.junit.jupiter.api.BeforeEach;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GameWebSocketHandlerTest {
+
+    private GameService gameService;
+    private GameWebSocketHandler handler;
+    private WebSocketSession session;
+    private String gameId;
+
+    @BeforeEach
+    void setUp() {
+        gameService = new GameService(new MoveService(), new ShardedGameRepository(4),
+                new PredictionStrategyFactory(PredictionStrategyFactory.MARKOV, 2));
+        handler = new GameWebSocketHandler(gameService);
+        gameId = gameService.startNewGame();
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("gameId", gameId);
+        attributes.put("client", "client");
+        session = mock(WebSocketSession.class);
+        when(session.getAttributes()).thenReturn(attributes);
+    }
+
+    @Test
+    void testAnswersOneMoveWithComputerMoveAndResult() throws Exception {
+        handler.handleMessage(session, new TextMessage("r"));
+
+        String reply = lastReply(1);
+        assertEquals(2, reply.length());
+        assertTrue("RPS".indexOf(reply.charAt(0)) >= 0, reply);
+        assertTrue("WLD".indexOf(reply.charAt(1)) >= 0, reply);
+        assertEquals(1, gameService.getGameOrThrow(gameId).getRoundCount());
+    }
+
+    @Test
+    void testAnswersBatchWithTwoLettersPerRound() throws Exception {
+        handler.handleMessage(session, new TextMessage("R p\nS r"));
+
+        String reply = lastReply(1);
+        assertTrue(reply.matches("([RPS][WLD]){4}"), reply);
+        assertEquals(4, gameService.getGameOrThrow(gameId).getRoundCount());
+    }
+
+    @Test
+    void testAnswersInvalidOrTooManyMovesWithErrorAndKeepsConnection() throws Exception {
+        handler.handleMessage(session, new TextMessage("x"));
+        assertTrue(lastReply(1).startsWith("!"));
+
+        handler.handleMessage(session, new TextMessage("rpx"));
+        assertTrue(lastReply(2).startsWith("!"));
+
+        handler.handleMessage(session, new TextMessage("r".repeat(4097)));
+        assertTrue(lastReply(3).startsWith("!"));
+
+        assertEquals(0, gameService.getGameOrThrow(gameId).getRoundCount());
+        verify(session, never()).close(any(CloseStatus.class));
+    }
+
+    @Test
+    void testClosesWith4404OnceGameIsTerminated() throws Exception {
+        gameService.terminateGame(gameId);
+
+        handler.handleMessage(session, new TextMessage("r"));
+
+        ArgumentCaptor<CloseStatus> status = ArgumentCaptor.forClass(CloseStatus.class);
+        verify(session).close(status.capture());
+        assertEquals(4404, status.getValue().getCode());
+        verify(session, never()).sendMessage(any());
+    }
+
+    @Test
+    void testChargesEveryMoveOfAFrameToTheClient() throws Exception {
+        // One move per second, so a frame of several moves empties the client's bucket.
+        RateLimits rateLimits = new RateLimits(5, 20, 1, 1, 100, 100, "", 1,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        handler = new GameWebSocketHandler(gameService, rateLimits);
+
+        handler.handleMessage(session, new TextMessage("rps"));
+        assertTrue(lastReply(1).matches("([RPS][WLD]){3}"));
+
+        handler.handleMessage(session, new TextMessage("r"));
+        assertTrue(lastReply(2).startsWith("!"));
+        assertEquals(3, gameService.getGameOrThrow(gameId).getRoundCount());
+    }
+
+    /**
+     * @param expected Number of frames sent so far.
+     */
+    private String lastReply(int expected) throws Exception {
+        ArgumentCaptor<TextMessage> reply = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, times(expected)).sendMessage(reply.capture());
+        return reply.getValue().getPayload();
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.rps;
+
+import com.example.rps.export.DumpedGame;
+import com.example.rps.export.FileGameArchive;
+import com.example.rps.export.HistoryDumpReader;
+import com.example.rps.export.HistoryDumpWriter;
+import com.example.rps.export.HistoryExportService;
+import com.example.rps.model.Game;
+import com.example.rps.model.GameResult;
+import com.example.rps.model.Move;
+import com.example.rps.model.PackedHistory;
+import com.example.rps.repository.ShardedGameRepository;
+import com.example.rps.util.GameIds;
+import com.example.rps.util.PredictionStrategyFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HistoryDumpTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testDumpRoundTripsThroughSmallBuffers() throws Exception {
+        Map<String, PackedHistory> histories = new HashMap<>();
+        for (int rounds : new int[]{0, 1, 5, 1001}) {
+            histories.put("game-" + rounds, history(rounds));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // Buffers smaller than a game force the columns to be split across flushes and refills.
+        HistoryDumpWriter writer = new HistoryDumpWriter(Channels.newChannel(out), 64);
+        writer.writeHeader();
+        for (Map.Entry<String, PackedHistory> entry : histories.entrySet()) {
+            writer.writeGame(entry.getKey(), HistoryDumpWriter.LIVE, entry.getValue());
+        }
+        writer.finish();
+        assertEquals(out.size(), writer.bytesWritten());
+
+        HistoryDumpReader reader = new HistoryDumpReader(
+                Channels.newChannel(new ByteArrayInputStream(out.toByteArray())), 64);
+        reader.readHeader();
+        DumpedGame game;
+        int read = 0;
+        while ((game = reader.next()) != null) {
+            assertSameRounds(histories.get(game.gameId()), game);
+            read++;
+        }
+        assertEquals(histories.size(), read);
+        assertEquals(out.size(), reader.bytesRead());
+    }
+
+    @Test
+    void testTruncatedDumpFails() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HistoryDumpWriter writer = new HistoryDumpWriter(Channels.newChannel(out));
+        writer.writeHeader();
+        writer.writeGame("game", HistoryDumpWriter.LIVE, history(100));
+        writer.finish();
+
+        byte[] truncated = Arrays.copyOf(out.toByteArray(), out.size() - 10);
+        HistoryDumpReader reader = new HistoryDumpReader(Channels.newChannel(new ByteArrayInputStream(truncated)));
+        reader.readHeader();
+        assertThrows(EOFException.class, reader::next);
+    }
+
+    @Test
+    void testExportIncludesArchivedAndLiveGames() throws Exception {
+        ShardedGameRepository games = new ShardedGameRepository(4);
+        FileGameArchive archive = new FileGameArchive(games, directory, 1 << 20);
+        archive.open();
+        String endedId = GameIds.format(1);
+        String liveId = GameIds.format(2);
+        archive.gameEnded(endedId, history(300));
+        PredictionStrategyFactory factory = new PredictionStrategyFactory(PredictionStrategyFactory.MARKOV, 2);
+        games.save(liveId, Game.restore(factory.create(), history(20)));
+        archive.close();
+
+        // Reopening drops a block torn by a crash and keeps the complete ones.
+        try (FileChannel channel = FileChannel.open(directory.resolve("archive-current.rpsb"),
+                StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{HistoryDumpWriter.GAME_BLOCK, 0, 4}));
+        }
+        archive = new FileGameArchive(games, directory, 1 << 20);
+        archive.open();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(2, new HistoryExportService(games, archive).export(Channels.newChannel(out)).games());
+        archive.close();
+
+        HistoryDumpReader reader = new HistoryDumpReader(
+                Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+        reader.readHeader();
+        DumpedGame ended = reader.next();
+        assertEquals(endedId, ended.gameId());
+        assertTrue(ended.terminated());
+        assertSameRounds(history(300), ended);
+        DumpedGame live = reader.next();
+        assertEquals(GameIds.handle(liveId), live.gameId());
+        assertSameRounds(history(20), live);
+        assertNull(reader.next());
+    }
+
+    @Test
+    void testRotationKeepsTheLatestGamesAcrossRestarts() throws Exception {
+        ShardedGameRepository games = new ShardedGameRepository(4);
+        // Every game fills a file, so each one rotates the archive.
+        FileGameArchive archive = new FileGameArchive(games, directory, 2);
+        archive.open();
+        for (int i = 1; i <= 5; i++) {
+            archive.gameEnded(GameIds.format(i), history(10 * i));
+        }
+        archive.close();
+        assertFalse(Files.exists(directory.resolve("archive-current.rpsb")));
+
+        archive = new FileGameArchive(games, directory, 2);
+        archive.open();
+        assertEquals(List.of(GameIds.format(5)), exportedIds(games, archive));
+        archive.gameEnded(GameIds.format(6), history(60));
+        archive.close();
+
+        archive = new FileGameArchive(games, directory, 2);
+        archive.open();
+        assertEquals(List.of(GameIds.format(6)), exportedIds(games, archive));
+        archive.close();
+    }
+
+    private static List<String> exportedIds(ShardedGameRepository games, FileGameArchive archive) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new HistoryExportService(games, archive).export(Channels.newChannel(out));
+        HistoryDumpReader reader = new HistoryDumpReader(
+                Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+        reader.readHeader();
+        List<String> gameIds = new ArrayList<>();
+        DumpedGame game;
+        while ((game = reader.next()) != null) {
+            gameIds.add(game.gameId());
+        }
+        return gameIds;
+    }
+
+    private static PackedHistory history(int rounds) {
+        PackedHistory history = new PackedHistory();
+        for (int i = 0; i < rounds; i++) {
+            history.add(Move.valueAt(i % Move.COUNT), Move.valueAt(i * 7 / 3 % Move.COUNT),
+                    GameResult.valueAt(i / 2 % GameResult.values().length));
+        }
+        return history;
+    }
+
+    private static void assertSameRounds(PackedHistory expected, DumpedGame actual) {
+        assertEquals(expected.size(), actual.rounds());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.userMoveAt(i), actual.userMoveAt(i));
+            assertEquals(expected.computerMoveAt(i), actual.computerMoveAt(i));
+            assertEquals(expected.resultAt(i), actual.resultAt(i));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.rps;
+
+import com.example.rps.util.Leaderboard;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LeaderboardTest {
+
+    @Test
+    void testKeepsBestGamesInOrderAndDropsEndedOnes() {
+        Leaderboard<Object> leaderboard = new Leaderboard<>(2, 10);
+        Object first = new Object();
+        Object second = new Object();
+        Object third = new Object();
+
+        leaderboard.update("first", first, 5, 5);
+        leaderboard.update("first", first, 10, 6);
+        leaderboard.update("second", second, 10, 8);
+        leaderboard.update("third", third, 10, 2);
+        assertEquals(List.of("second", "first"), gameIds(leaderboard));
+
+        // Games already on the board move when their win rate changes, even below the entry threshold.
+        leaderboard.update("second", second, 20, 8);
+        assertEquals(List.of("first", "second"), gameIds(leaderboard));
+
+        leaderboard.remove(first);
+        leaderboard.update("third", third, 11, 2);
+        assertEquals(List.of("second", "third"), gameIds(leaderboard));
+    }
+
+    private static List<String> gameIds(Leaderboard<?> leaderboard) {
+        return leaderboard.top().stream().map(Leaderboard.Entry::gameId).toList();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.rps;
+
+import com.example.rps.model.Move;
+import com.example.rps.util.MarkovPredictor;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MarkovPredictorTest {
+
+    @Test
+    void testLearnsARuleOverTheLastKMovesForEveryOrder() {
+        for (int order = 1; order <= MarkovPredictor.MAX_ORDER; order++) {
+            MarkovPredictor predictor = new MarkovPredictor(order);
+            int[] window = new int[order];
+            for (int i = 0; i < order; i++) {
+                assertNull(predictor.predict(), "Order " + order + " predicted before " + order + " moves");
+                window[i] = i % Move.COUNT;
+                predictor.recordMove(Move.valueAt(window[i]));
+            }
+            // The next move depends on every move in the window, so a wrong context encoding breaks predictions.
+            // The sequence repeats within 3^k moves, after which every context it reaches has been seen.
+            int contexts = (int) Math.pow(Move.COUNT, order);
+            for (int move = 0; move < 3 * contexts; move++) {
+                Move next = nextMove(window);
+                if (move >= contexts) {
+                    assertEquals(next, predictor.predict(), "Order " + order + ", move " + move);
+                }
+                predictor.recordMove(next);
+                System.arraycopy(window, 1, window, 0, order - 1);
+                window[order - 1] = next.ordinal();
+            }
+        }
+    }
+
+    @Test
+    void testSaturatedRowsAreHalvedSoNewHabitsTakeOver() {
+        MarkovPredictor predictor = new MarkovPredictor(1);
+        // 5000 rock-to-paper transitions, far beyond the counter limit of 1024.
+        for (int i = 0; i < 5000; i++) {
+            predictor.recordMove(Move.ROCK);
+            predictor.recordMove(Move.PAPER);
+        }
+        predictor.recordMove(Move.ROCK);
+        assertEquals(Move.PAPER, predictor.predict());
+
+        // Without halving it would take 5000 rock-to-scissors transitions to outweigh the old habit; with it,
+        // the old counter is below 1024.
+        for (int i = 0; i < 1024; i++) {
+            predictor.recordMove(Move.SCISSORS);
+            predictor.recordMove(Move.ROCK);
+        }
+        assertEquals(Move.SCISSORS, predictor.predict());
+    }
+
+    @Test
+    void testOrderIsBoundedAndSizesTheTable() {
+        assertThrows(IllegalArgumentException.class, () -> new MarkovPredictor(0));
+        assertThrows(IllegalArgumentException.class, () -> new MarkovPredictor(MarkovPredictor.MAX_ORDER + 1));
+
+        MarkovPredictor predictor = new MarkovPredictor(MarkovPredictor.MAX_ORDER);
+        // 3^6 contexts with one counter per move.
+        assertEquals(48L + 16L + 2187L * Integer.BYTES, predictor.estimatedBytes());
+        for (int i = 0; i < 10_000; i++) {
+            predictor.recordMove(Move.valueAt(i * 7 % 11 % Move.COUNT));
+        }
+        assertEquals(6, predictor.getOrder());
+    }
+
+    private static Move nextMove(int[] window) {
+        int sum = 1;
+        for (int i = 0; i < window.length; i++) {
+            sum += (i + 1) * window[i];
+        }
+        return Move.valueAt(sum % Move.COUNT);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.rps;
+
+import com.example.rps.model.GameResult;
+import com.example.rps.model.Move;
+import com.example.rps.model.PackedHistory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PackedHistoryTest {
+
+    @Test
+    void testRoundsSurviveWordBoundariesAndGrowth() {
+        PackedHistory history = new PackedHistory();
+        // Ten rounds share a word, and the history starts with four words, so this crosses both.
+        int rounds = 100;
+        for (int i = 0; i < rounds; i++) {
+            history.add(userMove(i), computerMove(i), result(i));
+            if (i == 8 || i == 9 || i == 10) {
+                assertRounds(history, i + 1);
+            }
+        }
+        assertRounds(history, rounds);
+        assertEquals(rounds, history.userMoves().size());
+        // Grown by half each time: 4, 6, 9, then 13 words for the 10 in use.
+        assertEquals(16L + 13 * Long.BYTES, history.estimatedBytes());
+    }
+
+    @Test
+    void testCopyOfEmptyHistoryCanGrow() {
+        PackedHistory copy = new PackedHistory().copy();
+        assertEquals(0, copy.size());
+
+        for (int i = 0; i < 25; i++) {
+            copy.add(userMove(i), computerMove(i), result(i));
+        }
+        assertRounds(copy, 25);
+    }
+
+    @Test
+    void testWriteAndReadRoundTrip() throws IOException {
+        for (int rounds : new int[]{0, 9, 10, 11, 57}) {
+            PackedHistory history = new PackedHistory();
+            for (int i = 0; i < rounds; i++) {
+                history.add(userMove(i), computerMove(i), result(i));
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            history.writeTo(new DataOutputStream(bytes));
+            // The round count, then only the words in use.
+            assertEquals(Integer.BYTES + (rounds + 9) / 10 * Long.BYTES, bytes.size());
+
+            PackedHistory read = PackedHistory.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+            assertRounds(read, rounds);
+            read.add(Move.ROCK, Move.PAPER, GameResult.LOSE);
+            assertEquals(Move.PAPER, read.computerMoveAt(rounds));
+        }
+    }
+
+    @Test
+    void testReadsOutOfRangeFail() {
+        PackedHistory history = new PackedHistory();
+        history.add(Move.ROCK, Move.SCISSORS, GameResult.WIN);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> history.userMoveAt(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> history.resultAt(1));
+        // Slots past the size in the same word are zero, which would otherwise decode as rock.
+        assertThrows(IndexOutOfBoundsException.class, () -> history.computerMoves().get(5));
+    }
+
+    private static void assertRounds(PackedHistory history, int rounds) {
+        assertEquals(rounds, history.size());
+        for (int i = 0; i < rounds; i++) {
+            assertEquals(userMove(i), history.userMoveAt(i), "User move " + i);
+            assertEquals(computerMove(i), history.computerMoveAt(i), "Computer move " + i);
+            assertEquals(result(i), history.resultAt(i), "Result " + i);
+        }
+    }
+
+    private static Move userMove(int round) {
+        return Move.valueAt(round % Move.COUNT);
+    }
+
+    private static Move computerMove(int round) {
+        return Move.valueAt(round / Move.COUNT % Move.COUNT);
+    }
+
+    private static GameResult result(int round) {
+        return GameResult.of(userMove(round), computerMove(round));
+    }
+}
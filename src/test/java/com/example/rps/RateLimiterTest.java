@@ -0,0 +1,83 @@
+package com.example.rps;
+
+import com.example.rps.ratelimit.ConcurrencyLimiter;
+import com.example.rps.ratelimit.RateLimiterRegistry;
+import com.example.rps.ratelimit.RateLimits;
+import com.example.rps.ratelimit.TokenBucket;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void testBucketAllowsBurstThenRefillsAtRate() {
+        long now = 5 * SECOND;
+        TokenBucket bucket = new TokenBucket(10, 3, now);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(now));
+        }
+        assertEquals(SECOND / 10, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now + SECOND / 10));
+        assertFalse(bucket.isIdle(now + SECOND / 10));
+        assertTrue(bucket.isIdle(now + SECOND));
+    }
+
+    @Test
+    void testBucketChargesBatchesAndBorrowsBeyondBurst() {
+        long now = 5 * SECOND;
+        TokenBucket bucket = new TokenBucket(10, 3, now);
+
+        // Admitted with tokens left, and the seven it lacks are repaid before the next one is free.
+        assertEquals(0, bucket.tryAcquire(now, 10));
+        assertEquals(SECOND * 8 / 10, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now + SECOND * 8 / 10, 2));
+        assertTrue(bucket.tryAcquire(now + SECOND * 8 / 10) > 0);
+    }
+
+    @Test
+    void testRegistryStaysBoundedAndForgetsIdleClients() {
+        RateLimiterRegistry registry = new RateLimiterRegistry(1, 1, 2);
+        long now = System.nanoTime();
+
+        assertEquals(0, registry.tryAcquire("a", now));
+        assertEquals(0, registry.tryAcquire("b", now));
+        // Clients beyond the bound share the overflow bucket instead of growing the registry.
+        assertEquals(0, registry.tryAcquire("c", now));
+        assertTrue(registry.tryAcquire("d", now) > 0);
+        assertEquals(2, registry.size());
+
+        assertEquals(2, registry.sweep(now + SECOND));
+        assertEquals(0, registry.size());
+        assertEquals(0, registry.tryAcquire("d", now + SECOND));
+    }
+
+    @Test
+    void testConcurrencyLimiterRefusesOverCap() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.inFlight());
+    }
+
+    @Test
+    void testClientIsTakenFromTrustedEndOfForwardedHeader() {
+        // The client made up the first entry; the proxy appended the address it really came from.
+        assertEquals("203.0.113.7", RateLimits.clientFromHeader("1.2.3.4, 203.0.113.7", 1));
+        assertEquals("203.0.113.7", RateLimits.clientFromHeader("1.2.3.4,203.0.113.7, 10.0.0.2", 2));
+        assertEquals("203.0.113.7", RateLimits.clientFromHeader("203.0.113.7", 1));
+        assertNull(RateLimits.clientFromHeader("203.0.113.7", 2));
+        assertNull(RateLimits.clientFromHeader(" ", 1));
+        assertNull(RateLimits.clientFromHeader(null, 1));
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.rps;
+
+import com.example.rps.controller.ReactiveGameController;
+import com.example.rps.dto.GameStartedResponse;
+import com.example.rps.export.NoOpGameArchive;
+import com.example.rps.metrics.GameMetrics;
+import com.example.rps.model.Round;
+import com.example.rps.persistence.GameJournal;
+import com.example.rps.ratelimit.RateLimits;
+import com.example.rps.repository.ShardedGameRepository;
+import com.example.rps.service.GameService;
+import com.example.rps.service.GlobalStatisticsService;
+import com.example.rps.service.MoveService;
+import com.example.rps.service.RandomGameIdGenerator;
+import com.example.rps.service.StatisticsService;
+import com.example.rps.util.PredictionStrategyFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReactiveGameControllerTest {
+
+    private final Set<String> commitThreads = ConcurrentHashMap.newKeySet();
+
+    private GameService gameService;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        ShardedGameRepository games = new ShardedGameRepository(4);
+        GameJournal journal = new BlockingJournal();
+        GlobalStatisticsService globalStatistics = new GlobalStatisticsService(games);
+        gameService = new GameService(new MoveService(), games, new RandomGameIdGenerator(),
+                new PredictionStrategyFactory(PredictionStrategyFactory.MARKOV, 2), journal, new NoOpGameArchive(),
+                new GameMetrics(new SimpleMeterRegistry(), games), globalStatistics, 0);
+        // One move per second, so a batch empties the client's bucket.
+        RateLimits rateLimits = new RateLimits(5, 20, 1, 1, 100, 100, "", 1,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        ReactiveGameController controller = new ReactiveGameController(gameService, new MoveService(),
+                new StatisticsService(games), globalStatistics, journal,
+                new StaticListableBeanFactory(Map.of("rateLimits", rateLimits)).getBeanProvider(RateLimits.class));
+        client = WebTestClient.bindToController(controller)
+                .webFilter((exchange, chain) -> {
+                    exchange.getAttributes().put(RateLimits.CLIENT_ATTRIBUTE, "client");
+                    return chain.filter(exchange);
+                })
+                .build();
+    }
+
+    @Test
+    void testStartGameReturnsTheGameId() {
+        String gameId = client.post().uri("/game/start")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(GameStartedResponse.class)
+                .returnResult()
+                .getResponseBody()
+                .gameId();
+
+        assertEquals(0, gameService.getGameOrThrow(gameId).getRoundCount());
+    }
+
+    @Test
+    void testMakeMovesWaitsForCommitOffTheCallingThread() {
+        String gameId = gameService.startNewGame();
+        commitThreads.clear();
+
+        client.post().uri("/game/{gameId}/moves", gameId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of("rock", "paper", "scissors"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.valid").isEqualTo(true)
+                .jsonPath("$.results.length()").isEqualTo(3);
+
+        assertFalse(commitThreads.isEmpty());
+        assertTrue(commitThreads.stream().allMatch(name -> name.startsWith("boundedElastic")), commitThreads::toString);
+    }
+
+    @Test
+    void testMakeMovesChargesEveryMoveToTheClient() {
+        String gameId = gameService.startNewGame();
+
+        // Admitted with the one token left; the other two are borrowed from the refill.
+        client.post().uri("/game/{gameId}/moves", gameId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of("rock", "paper", "scissors"))
+                .exchange()
+                .expectStatus().isOk();
+
+        client.post().uri("/game/{gameId}/moves", gameId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of("rock"))
+                .exchange()
+                .expectStatus().isEqualTo(429)
+                .expectHeader().exists("Retry-After")
+                .expectBody()
+                .jsonPath("$.valid").isEqualTo(false);
+        assertEquals(3, gameService.getGameOrThrow(gameId).getRoundCount());
+    }
+
+    @Test
+    void testMakeMovesReturnsNotFoundForUnknownGame() {
+        client.post().uri("/game/{gameId}/moves", "unknown")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of("rock"))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.valid").isEqualTo(false);
+    }
+
+    /**
+     * Journal that claims to block on commits and records the threads that wait for them.
+     */
+    private class BlockingJournal implements GameJournal {
+
+        @Override
+        public long gameStarted(String gameId) {
+            return 0;
+        }
+
+        @Override
+        public long roundPlayed(String gameId, int roundIndex, Round round) {
+            return 0;
+        }
+
+        @Override
+        public long gameEnded(String gameId) {
+            return 0;
+        }
+
+        @Override
+        public void awaitDurable(long position) {
+            commitThreads.add(Thread.currentThread().getName());
+        }
+
+        @Override
+        public boolean blocksOnCommit() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.rps;
+
+import com.example.rps.model.Game;
+import com.example.rps.repository.LongGameMap;
+import com.example.rps.repository.SessionStoreStatistics;
+import com.example.rps.repository.ShardedGameRepository;
+import com.example.rps.service.RandomGameIdGenerator;
+import com.example.rps.util.GameIds;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShardedGameRepositoryTest {
+
+    private static final String IDLE = GameIds.format(1);
+    private static final String ACTIVE = GameIds.format(2);
+    private static final String FIRST = GameIds.format(3);
+    private static final String SECOND = GameIds.format(4);
+    private static final String THIRD = GameIds.format(5);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void testSweepEvictsExpiredGamesAndNotifiesListeners() {
+        ShardedGameRepository repository = new ShardedGameRepository(4, Duration.ofMinutes(1), 100, clock::get);
+        List<String> evicted = new ArrayList<>();
+        repository.addEvictionListener((gameId, game) -> evicted.add(gameId));
+
+        repository.save(IDLE, new Game());
+        repository.save(ACTIVE, new Game());
+        clock.addAndGet(Duration.ofSeconds(50).toNanos());
+        repository.findById(ACTIVE);
+        clock.addAndGet(Duration.ofSeconds(20).toNanos());
+        repository.sweep();
+
+        assertFalse(repository.findById(IDLE).isPresent());
+        assertTrue(repository.findById(ACTIVE).isPresent());
+        assertEquals(List.of(IDLE), evicted);
+
+        SessionStoreStatistics stats = repository.getStatistics();
+        assertEquals(1, stats.liveSessions());
+        assertEquals(1, stats.expiredEvictions());
+        assertTrue(stats.estimatedBytes() > 0);
+    }
+
+    @Test
+    void testLeastRecentlyUsedGameIsEvictedAtCapacity() {
+        ShardedGameRepository repository = new ShardedGameRepository(1, Duration.ZERO, 2, clock::get);
+
+        repository.save(FIRST, new Game());
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        repository.save(SECOND, new Game());
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        repository.findById(FIRST);
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        repository.save(THIRD, new Game());
+
+        assertEquals(2, repository.count());
+        assertFalse(repository.findById(SECOND).isPresent());
+        assertEquals(1, repository.getStatistics().capacityEvictions());
+    }
+
+    @Test
+    void testLongGameMapFindsEveryEntryAfterGrowingAndRemovals() {
+        LongGameMap map = new LongGameMap();
+        RandomGameIdGenerator ids = new RandomGameIdGenerator();
+        List<Long> gameIds = new ArrayList<>();
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            gameIds.add(ids.nextLongId());
+            games.add(new Game());
+            map.put(gameIds.get(i), games.get(i));
+        }
+        for (int i = 0; i < gameIds.size(); i += 3) {
+            assertEquals(games.get(i), map.remove(gameIds.get(i)));
+        }
+        assertFalse(map.remove(gameIds.get(1), new Game()));
+
+        for (int i = 0; i < gameIds.size(); i++) {
+            assertEquals(i % 3 == 0 ? null : games.get(i), map.get(gameIds.get(i)));
+        }
+        assertEquals(gameIds.size() - (gameIds.size() + 2) / 3, map.size());
+    }
+
+    @Test
+    void testMalformedIdsNameNoGame() {
+        ShardedGameRepository repository = new ShardedGameRepository(4);
+        repository.save(FIRST, new Game());
+        for (String gameId : new String[]{"not-a-game", FIRST.toUpperCase() + "0", GameIds.format(GameIds.INVALID)}) {
+            assertFalse(repository.findById(gameId).isPresent(), gameId);
+            assertNull(repository.deleteById(gameId));
+        }
+        assertEquals(1, repository.count());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.rps;
+
+import com.example.rps.service.MoveService;
+import com.example.rps.simulation.PlayerModel;
+import com.example.rps.simulation.SimulationResult;
+import com.example.rps.simulation.TournamentSimulator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TournamentSimulatorTest {
+
+    private static final List<String> STRATEGIES = List.of("frequency", "markov:2", "ensemble");
+
+    @Test
+    public void testSameSeedGivesSameResultsOnAnyParallelism() {
+        List<SimulationResult> sequential = run(1, 42);
+        List<SimulationResult> parallel = run(4, 42);
+
+        assertEquals(sequential, parallel);
+        assertEquals(STRATEGIES.size() * PlayerModel.values().length, sequential.size());
+        sequential.forEach(result -> assertEquals(50L * 200, result.rounds()));
+    }
+
+    @Test
+    public void testMarkovStrategyBeatsCyclicPlayer() {
+        SimulationResult result = run(2, 7).stream()
+                .filter(r -> r.strategy().equals("markov:2") && r.player() == PlayerModel.CYCLIC)
+                .findFirst()
+                .orElseThrow();
+
+        assertTrue(result.winRate() > 0.6, "Win rate: " + result.winRate());
+    }
+
+    @Test
+    public void testEnsembleBeatsPlayersThatReactToTheComputer() {
+        List<SimulationResult> results = run(2, 7);
+        for (PlayerModel player : List.of(PlayerModel.WIN_STAY_LOSE_SHIFT, PlayerModel.COUNTER)) {
+            SimulationResult ensemble = resultOf(results, "ensemble", player);
+            SimulationResult markov = resultOf(results, "markov:2", player);
+
+            assertTrue(ensemble.winRate() > 0.7, player + " win rate: " + ensemble.winRate());
+            assertTrue(ensemble.winRate() > markov.winRate(), player + " win rate: " + ensemble.winRate());
+        }
+        SimulationResult random = resultOf(results, "ensemble", PlayerModel.RANDOM);
+        assertTrue(Math.abs(random.winRate() - random.lossRate()) < 0.05, "Against random: " + random);
+    }
+
+    private static SimulationResult resultOf(List<SimulationResult> results, String strategy, PlayerModel player) {
+        return results.stream()
+                .filter(r -> r.strategy().equals(strategy) && r.player() == player)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static List<SimulationResult> run(int parallelism, long seed) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return new TournamentSimulator(new MoveService(), pool)
+                    .run(seed, STRATEGIES, List.of(PlayerModel.values()), 50, 200);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}